@@ -1,68 +1,214 @@
 package org.examfgdgfd;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.examfgdgfd.config.AppConfig;
+import org.examfgdgfd.core.BrowserSessionPool;
+import org.examfgdgfd.core.CaptureBatch;
+import org.examfgdgfd.core.DevToolsBridge;
+import org.examfgdgfd.core.DriverCommandExecutor;
+import org.examfgdgfd.core.DriverCommandExecutor.Priority;
+import org.examfgdgfd.core.GhostScript;
+import org.examfgdgfd.core.LaunchProgress;
+import org.examfgdgfd.core.LocatorCandidate;
+import org.examfgdgfd.core.NetworkRecorder;
+import org.examfgdgfd.core.LaunchProgress.Stage;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Optimized AutomationEngine with faster page detection and element tracking.
  * Implements lazy loading and efficient JavaScript injection.
+ * Every WebDriver call goes through a single DriverCommandExecutor thread.
  */
 public class AutomationEngine {
-    public WebDriver driver;
-    public boolean isMonitoring = false;
-    private WebDriverWait wait;
+    private volatile boolean monitoring = false;
     private volatile Map<String, Object> lastElement;
+    private volatile DevToolsBridge devTools;
+    private volatile Consumer<Map<String, Object>> captureListener;
     private static final long ELEMENT_CACHE_TIMEOUT = 500; // ms
+    private final BrowserSessionPool sessionPool;
+    private final DriverCommandExecutor commands = new DriverCommandExecutor();
+    // Tracker switches applied to the current page and every new document
+    private final Map<String, Object> pageSettings = new ConcurrentHashMap<>();
+    private final NetworkRecorder network = new NetworkRecorder();
+    private volatile boolean networkRecording;
 
-    public void launch(String url) {
+    public AutomationEngine(BrowserSessionPool sessionPool) {
+        this.sessionPool = sessionPool;
+    }
+
+    /**
+     * Launch asynchronously. The returned progress completes each stage as it is reached.
+     */
+    public LaunchProgress launch(String url) {
+        LaunchProgress progress = new LaunchProgress();
         new Thread(() -> {
             try {
-                WebDriverManager.chromedriver().setup();
-
-                // Optimize Chrome options for faster loading
-                ChromeOptions options = new ChromeOptions();
-                options.addArguments("--disable-blink-features=AutomationControlled");
-                options.addArguments("--disable-extensions");
-                options.addArguments("--disable-plugins");
-                options.addArguments("--disable-sync");
+                // Hand back a session left over from an earlier launch before taking a fresh one
+                closeDriver();
 
-                driver = new ChromeDriver(options);
-                driver.manage().window().maximize();
+                BrowserSessionPool.resolveDriverBinary();
+                progress.complete(Stage.DRIVER_RESOLVED);
 
-                // Set faster timeout
-                driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
-                driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+                commands.setDriver(sessionPool.acquire(AppConfig.BROWSER_LAUNCH_TIMEOUT));
+                progress.complete(Stage.BROWSER_STARTED);
 
-                wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+                // Push captures over CDP when the driver supports it
+                commands.call("attachDevTools", Priority.COMMAND, driver -> {
+                    attachDevTools(driver);
+                    return null;
+                });
 
                 // Load page with optimization
-                driver.get(url);
+                commands.call("get", Priority.COMMAND, driver -> {
+                    driver.get(url);
+                    return null;
+                });
 
                 // Wait for DOM to be ready
                 waitForPageReady();
+                progress.complete(Stage.DOM_READY);
 
-                // Inject tracking script after page is ready
-                injectGhostScript();
+                // New-document registration already covered this page, injecting is a no-op then;
+                // without DevTools this is the only injection until the poller sees it missing
+                runGhostScript();
+                progress.complete(Stage.SCRIPT_INJECTED);
 
             } catch (Exception e) {
                 System.err.println("Error launching browser: " + e.getMessage());
+                progress.fail(e);
             }
-        }).start();
+        }, "browser-launch").start();
+        return progress;
+    }
+
+    private void attachDevTools(WebDriver driver) {
+        devTools = DevToolsBridge.attach(driver);
+        if (devTools == null) {
+            System.out.println("DevTools not available - using polling capture");
+            return;
+        }
+        try {
+            devTools.exposeCaptureBinding(data -> {
+                Consumer<Map<String, Object>> listener = captureListener;
+                if (monitoring && listener != null) {
+                    lastElement = data;
+                    listener.accept(data);
+                }
+            });
+            // Every document and frame gets the tracker before its own scripts run
+            devTools.installOnNewDocument(GhostScript.tracker(Map.copyOf(pageSettings)));
+            if (networkRecording) devTools.enableNetwork(network);
+        } catch (Exception e) {
+            System.err.println("Error exposing capture binding: " + e.getMessage());
+            devTools.detach();
+            devTools = null;
+        }
+    }
+
+    public boolean isMonitoring() {
+        return monitoring;
+    }
+
+    public void setMonitoring(boolean monitoring) {
+        this.monitoring = monitoring;
+    }
+
+    /**
+     * True when captures arrive through the DevTools binding and no polling is needed.
+     */
+    public boolean isPushCaptureAvailable() {
+        return devTools != null;
+    }
+
+    /**
+     * Receive pushed captures while monitoring. Pass null to stop listening.
+     */
+    public void setCaptureListener(Consumer<Map<String, Object>> listener) {
+        this.captureListener = listener;
+    }
+
+    /**
+     * Merge tracker settings into the current page and every document loaded after it.
+     * Kept for the next launch when no browser is running.
+     */
+    public void applyPageSettings(Map<String, Object> settings) {
+        pageSettings.putAll(settings);
+        if (!commands.hasDriver()) return;
+        try {
+            commands.call("applyPageSettings", Priority.COMMAND, driver -> {
+                DevToolsBridge bridge = devTools;
+                if (bridge != null) bridge.installOnNewDocument(GhostScript.tracker(Map.copyOf(pageSettings)));
+                return ((JavascriptExecutor) driver).executeScript(
+                    "if (window.ghostTester) window.ghostTester.configure(arguments[0]);", settings);
+            });
+        } catch (Exception e) {
+            System.err.println("Error applying page settings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Show the in-page quick-pick overlay on each capture, so the decision arrives with it.
+     */
+    public void setQuickPick(boolean enabled) {
+        applyPageSettings(Map.of("quickPick", enabled));
+    }
+
+    /**
+     * Watch XHR/fetch traffic so captures can wait on the requests they trigger. Clicks pass through
+     * to the page while this is on, otherwise nothing would be sent. Needs DevTools; returns false
+     * when the running browser has none.
+     */
+    public boolean setNetworkRecording(boolean enabled) {
+        networkRecording = enabled;
+        network.clear();
+        applyPageSettings(Map.of("passThrough", enabled));
+        DevToolsBridge bridge = devTools;
+        if (bridge == null) return !commands.hasDriver() || !enabled;
+        try {
+            commands.call("networkRecording", Priority.COMMAND, driver -> {
+                if (enabled) bridge.enableNetwork(network);
+                else bridge.disableNetwork();
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error switching network recording: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Requests the click at the given page time started, completed once they have finished, at most
+     * the link window plus the response wait after the click; empty when network recording is off.
+     */
+    public CompletableFuture<List<NetworkRecorder.Request>> requestsTriggeredBy(long clickedAt) {
+        if (!networkRecording || devTools == null) return CompletableFuture.completedFuture(List.of());
+        return network.linkedTo(clickedAt);
+    }
+
+    /**
+     * Per-command round-trip timings for every WebDriver call made so far.
+     */
+    public Map<String, DriverCommandExecutor.CommandStats> getCommandStats() {
+        return commands.getStats();
     }
 
     private void waitForPageReady() {
         try {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            // Wait for document.readyState === 'complete'
-            js.executeAsyncScript(
-                "var callback = arguments[arguments.length - 1];" +
-                "if(document.readyState === 'complete') callback(true);" +
-                "else window.addEventListener('load', function() { callback(true); });"
+            commands.call("waitForPageReady", Priority.COMMAND, driver ->
+                // Wait for document.readyState === 'complete'
+                ((JavascriptExecutor) driver).executeAsyncScript(
+                    "var callback = arguments[arguments.length - 1];" +
+                    "if(document.readyState === 'complete') callback(true);" +
+                    "else window.addEventListener('load', function() { callback(true); });"
+                )
             );
         } catch (Exception e) {
             System.out.println("Page ready wait completed or timed out");
@@ -71,73 +217,172 @@ public class AutomationEngine {
 
     public void injectGhostScript() {
         try {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript(
-                "window.ghostTester = {" +
-                "  lastEl: null," +
-                "  clickHandler: function(e) {" +
-                "    e.preventDefault();" +
-                "    e.stopPropagation();" +
-                "    this.lastEl = {" +
-                "      element: e.target," +
-                "      time: Date.now()" +
-                "    };" +
-                "    console.log('Element captured:', e.target.tagName);" +
-                "  }" +
-                "};" +
-                "document.addEventListener('click', window.ghostTester.clickHandler.bind(window.ghostTester), true);"
-            );
-            System.out.println("✓ Ghost script injected successfully");
+            runGhostScript();
         } catch (Exception e) {
             System.err.println("Error injecting script: " + e.getMessage());
         }
     }
 
+    private void runGhostScript() {
+        commands.call("injectGhostScript", Priority.COMMAND, driver ->
+            ((JavascriptExecutor) driver).executeScript(GhostScript.tracker(Map.copyOf(pageSettings)))
+        );
+        System.out.println("✓ Ghost script injected successfully");
+    }
+
     /**
-     * Get selected element with caching to avoid redundant calls.
-     * Optimized for faster detection.
+     * Drain every pending capture from the in-page queue in one executeScript call.
+     * Polling fallback for drivers without DevTools push capture.
      */
-    public Map<String, Object> getSelectedElement() {
+    @SuppressWarnings("unchecked")
+    public CaptureBatch drainSelectedElements() {
         try {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-
-            // Use optimized script with minimal overhead
-            Map<String, Object> data = (Map<String, Object>) js.executeScript(
-                "if(!window.ghostTester || !window.ghostTester.lastEl) return null;" +
-                "var captured = window.ghostTester.lastEl;" +
-                "window.ghostTester.lastEl = null;" +
-                "var el = captured.element;" +
-                "return {" +
-                "  id: el.id || ''," +
-                "  text: (el.innerText || el.textContent || '').substring(0, 100).trim()," +
-                "  tag: el.tagName.toLowerCase()," +
-                "  class: el.className || ''," +
-                "  type: el.type || ''" +
-                "};"
+            Map<String, Object> result = commands.call("drainCaptures", Priority.CAPTURE, driver ->
+                (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                    "var gt = window.ghostTester;" +
+                    "if(!gt) return { lost: true };" +
+                    "if(gt.queue.length === 0 && gt.dropped === 0) return null;" +
+                    "var batch = { captures: gt.queue, dropped: gt.dropped };" +
+                    "gt.queue = [];" +
+                    "gt.dropped = 0;" +
+                    "return batch;"
+                )
             );
+            if (result == null) return CaptureBatch.EMPTY;
+            if (Boolean.TRUE.equals(result.get("lost"))) {
+                // Navigation replaced the document, the drain doubles as the detection probe
+                injectGhostScript();
+                return CaptureBatch.EMPTY;
+            }
 
-            lastElement = data;
-            return data;
+            List<Map<String, Object>> captures = new ArrayList<>((List<Map<String, Object>>) result.get("captures"));
+            long dropped = ((Number) result.get("dropped")).longValue();
+            if (!captures.isEmpty()) {
+                lastElement = captures.get(captures.size() - 1);
+            }
+            return new CaptureBatch(captures, dropped);
+
+        } catch (Exception e) {
+            return CaptureBatch.EMPTY;
+        }
+    }
+
+    /**
+     * Score every candidate against the captured element in one script call:
+     * match count, whether the element is the first match, and visibility.
+     * Returns false when the page no longer holds the element, leaving candidates unscored.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean scoreLocators(Object seq, List<LocatorCandidate> candidates) {
+        if (seq == null || candidates.isEmpty()) return false;
+
+        List<Map<String, Object>> query = new ArrayList<>(candidates.size());
+        for (LocatorCandidate candidate : candidates) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("css", candidate.getCss());
+            entry.put("text", candidate.getText());
+            query.add(entry);
+        }
+
+        try {
+            Map<String, Object> result = commands.call("scoreLocators", Priority.CAPTURE, driver ->
+                (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                    "return window.ghostTester ? window.ghostTester.score(arguments[0], arguments[1]) : null;",
+                    seq, query
+                )
+            );
+            if (result == null || !Boolean.TRUE.equals(result.get("known"))) return false;
 
+            List<Map<String, Object>> scores = (List<Map<String, Object>>) result.get("scores");
+            for (int i = 0; i < candidates.size() && i < scores.size(); i++) {
+                Map<String, Object> score = scores.get(i);
+                candidates.get(i).setScore(
+                    ((Number) score.get("count")).intValue(),
+                    Boolean.TRUE.equals(score.get("first")),
+                    Boolean.TRUE.equals(score.get("visible"))
+                );
+            }
+            return true;
         } catch (Exception e) {
-            return null;
+            System.err.println("Error scoring locators: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Describe every visible interactive element on the current page in one script call.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> harvestElements() {
+        String script =
+            "return window.ghostTester ? window.ghostTester.harvest(" + AppConfig.HARVEST_MAX_ELEMENTS + ") : null;";
+        List<Map<String, Object>> elements = commands.call("harvest", Priority.COMMAND, driver ->
+            (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(script)
+        );
+        if (elements == null) {
+            // Tracker missing on this document, inject and ask again
+            runGhostScript();
+            elements = commands.call("harvest", Priority.COMMAND, driver ->
+                (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(script)
+            );
         }
+        return elements != null ? elements : new ArrayList<>();
     }
 
+    /**
+     * Check recorded locators against the current page in one script call. Entries carry the getter
+     * name, the css and text of its locator and the recorded fingerprint; each result says whether the
+     * locator still resolves, and for a broken one the matching element's selector when one was found.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> repairLocators(List<Map<String, Object>> entries) {
+        String script = "return window.ghostTester ? window.ghostTester.repair(arguments[0], arguments[1]) : null;";
+        List<Map<String, Object>> results = commands.call("repairLocators", Priority.COMMAND, driver ->
+            (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(script, entries, AppConfig.HARVEST_MAX_ELEMENTS)
+        );
+        if (results == null) {
+            runGhostScript();
+            results = commands.call("repairLocators", Priority.COMMAND, driver ->
+                (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(script, entries, AppConfig.HARVEST_MAX_ELEMENTS)
+            );
+        }
+        return results != null ? results : new ArrayList<>();
+    }
+
+    /**
+     * Return the session to the pool, which resets it for the next launch.
+     */
     public void closeDriver() {
-        if (driver != null) {
+        if (devTools != null) {
+            devTools.detach();
+            devTools = null;
+        }
+        if (commands.hasDriver()) {
             try {
-                driver.quit();
+                commands.call("releaseSession", Priority.COMMAND, driver -> {
+                    sessionPool.release(driver);
+                    return null;
+                });
             } catch (Exception e) {
                 System.err.println("Error closing driver: " + e.getMessage());
             }
+            commands.setDriver(null);
         }
     }
 
+    /**
+     * Stop the command thread. The engine cannot launch again afterwards.
+     */
+    public void shutdown() {
+        closeDriver();
+        commands.shutdown();
+    }
+
     public boolean isDriverReady() {
         try {
-            if (driver == null) return false;
-            driver.getCurrentUrl();
+            if (!commands.hasDriver()) return false;
+            commands.probe("getCurrentUrl", WebDriver::getCurrentUrl)
+                .get(AppConfig.DRIVER_PROBE_TIMEOUT, TimeUnit.MILLISECONDS);
             return true;
         } catch (Exception e) {
             return false;
@@ -146,9 +391,11 @@ public class AutomationEngine {
 
     public String getCurrentUrl() {
         try {
-            return driver != null ? driver.getCurrentUrl() : "";
+            if (!commands.hasDriver()) return "";
+            return commands.probe("getCurrentUrl", WebDriver::getCurrentUrl)
+                .get(AppConfig.DRIVER_PROBE_TIMEOUT, TimeUnit.MILLISECONDS);
         } catch (Exception e) {
             return "";
         }
     }
-}
\ No newline at end of file
+}
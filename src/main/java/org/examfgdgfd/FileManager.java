@@ -1,48 +1,167 @@
 package org.examfgdgfd;
 
+import org.examfgdgfd.codegen.FingerprintStore;
+import org.examfgdgfd.codegen.GeneratedFileStore;
+import org.examfgdgfd.codegen.JsFileModel;
+import org.examfgdgfd.codegen.RouteShard;
+import org.examfgdgfd.logging.AppLogger;
+
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FileManager {
-    public void updateFiles(String rootPath, String folder, String name, String pomLine, String specLine, String url) throws Exception {
-        String basePath = rootPath + "/" + folder;
-        File pagesDir = new File(basePath + "/cypress/pages");
-        File testsDir = new File(basePath + "/cypress/e2e");
+    private static final String INDEX_MODULE = "index.js";
 
-        if (!pagesDir.exists()) pagesDir.mkdirs();
+    // Parsed structure of each generated file, kept current across edits
+    private final GeneratedFileStore store = new GeneratedFileStore();
+    private final FingerprintStore fingerprints = new FingerprintStore();
+    // Page class "page" holds at the end of each flow spec written in this run
+    private final Map<Path, String> currentPageClass = new ConcurrentHashMap<>();
+
+    /**
+     * Steps recorded on one page route, in order.
+     */
+    public static class StepRun {
+        private final String url;
+        private final List<String> lines;
+
+        public StepRun(String url, List<String> lines) {
+            this.url = url;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Append steps to the spec of their recording flow in a single write. Getters stay split by
+     * route, but a flow's steps stay together in one it block so every step runs on the state the
+     * steps before it built up. "page" is switched to the route's class whenever the route changes,
+     * and every class the flow uses is imported from '../pages'.
+     */
+    public void appendFlowSteps(String rootPath, String folder, String flowId, List<StepRun> runs) throws Exception {
+        if (runs.isEmpty()) return;
+        File testsDir = new File(rootPath + "/" + folder + "/cypress/e2e");
         if (!testsDir.exists()) testsDir.mkdirs();
+        Path specFile = flowSpecFile(rootPath, folder, flowId);
 
-        // 1. Smart Append for Page Object
-        File pomFile = new File(pagesDir, "PageObjects.js");
-        String pomContent = pomFile.exists() ? Files.readString(pomFile.toPath()) : "export class PageObjects {\n}";
-        int lastBracePOM = pomContent.lastIndexOf("}");
-        pomContent = pomContent.substring(0, lastBracePOM) + "  " + pomLine + "\n}";
-        Files.writeString(pomFile.toPath(), pomContent);
-
-        // 2. Smart Append for Spec File
-        File specFile = new File(testsDir, "generated_test.cy.js");
-        String specContent;
-        if (!specFile.exists()) {
-            specContent = "import { PageObjects } from '../pages/PageObjects';\n\n" +
-                    "describe('Automation Suite', () => {\n" +
-                    "  const page = new PageObjects();\n" +
-                    "  it('Generated User Flow', () => {\n" +
-                    "    cy.visit('" + url + "');\n" +
-                    "  });\n" +
-                    "});";
-        } else {
-            specContent = Files.readString(specFile.toPath());
+        String firstClass = RouteShard.of(runs.get(0).url).getClassName();
+        boolean created = !Files.exists(specFile);
+        String current = created ? firstClass : currentPageClass.get(specFile);
+        List<String> lines = new ArrayList<>();
+        Set<String> used = new LinkedHashSet<>();
+        used.add(firstClass);
+        for (StepRun run : runs) {
+            String className = RouteShard.of(run.url).getClassName();
+            used.add(className);
+            // Unknown after a restart: switching again is harmless, page objects hold no state
+            if (!className.equals(current)) lines.add("page = new " + className + "();");
+            current = className;
+            lines.addAll(run.lines);
         }
 
-        // البحث عن آخر إغلاق للـ it block قبل إغلاق الـ describe
-        int lastItClosure = specContent.lastIndexOf("});"); // إغلاق الـ it
-        int lastDescribeClosure = specContent.lastIndexOf("});"); // قد يتشابهان، لذا نأخذ مكان ذكي
+        String specTemplate = "import { " + firstClass + " } from '../pages';\n\n" +
+                "describe('" + firstClass + " flow " + flowId + "', () => {\n" +
+                "  it('Generated User Flow', () => {\n" +
+                "    cy.visit('" + runs.get(0).url.replace("'", "\\'") + "');\n" +
+                "    let page = new " + firstClass + "();\n" +
+                "  });\n" +
+                "});";
 
         // نضع السطر الجديد قبل آخر إغلاقين (داخل الـ it block)
-        String firstPart = specContent.substring(0, specContent.lastIndexOf("  });"));
-        specContent = firstPart + "    " + specLine + "\n  });\n});";
+        store.edit(specFile, specTemplate, model -> model.insertSteps(lines));
+        JsFileModel model = store.model(specFile);
+        used.removeAll(model.getPageImports());
+        // A spec whose import was rewritten by hand keeps its own imports
+        if (!used.isEmpty() && !model.getPageImports().isEmpty()) {
+            List<String> missing = new ArrayList<>(used);
+            store.edit(specFile, specTemplate, m -> m.addPageImports(missing));
+        }
+        currentPageClass.put(specFile, current);
+    }
+
+    /**
+     * The spec file holding the steps of one recording flow.
+     */
+    public static Path flowSpecFile(String rootPath, String folder, String flowId) {
+        return Paths.get(rootPath, folder, "cypress", "e2e", "flow-" + flowId + ".cy.js");
+    }
+
+    /**
+     * Append many getters to the page class of the URL's route in a single write.
+     */
+    public void appendGetters(String rootPath, String folder, String url, List<String> pomLines) throws Exception {
+        File pagesDir = new File(rootPath + "/" + folder + "/cypress/pages");
+        if (!pagesDir.exists()) pagesDir.mkdirs();
+        appendPomLines(pagesDir, RouteShard.of(url), pomLines);
+    }
 
-        Files.writeString(specFile.toPath(), specContent);
+    /**
+     * The page object file getters for this URL are appended to.
+     */
+    public static Path pageObjectFile(String rootPath, String folder, String url) {
+        return Paths.get(rootPath, folder, "cypress", "pages", RouteShard.of(url).getPageFileName());
+    }
+
+    /**
+     * Parsed page object, or null when the file does not exist.
+     */
+    public JsFileModel pageModel(Path pageFile) throws IOException {
+        return store.model(pageFile);
+    }
+
+    /**
+     * Rewrite a single getter in place; the rest of the file is left byte for byte.
+     */
+    public void replaceGetter(Path pageFile, String name, String pomLine) throws IOException {
+        store.edit(pageFile, "", model -> model.replaceGetter(name, pomLine));
+    }
+
+    /**
+     * Recorded element fingerprints, shared by the writer, harvest and locator repair.
+     */
+    public FingerprintStore getFingerprints() {
+        return fingerprints;
+    }
+
+    private void appendPomLines(File pagesDir, RouteShard shard, List<String> pomLines) throws Exception {
+        File pomFile = new File(pagesDir, shard.getPageFileName());
+        boolean created = !pomFile.exists();
+        store.edit(pomFile.toPath(), "export class " + shard.getClassName() + " {\n}", model -> model.insertGetters(pomLines));
+        if (created) {
+            writeIndexModule(pagesDir);
+        }
+    }
+
+    /**
+     * Rebuild pages/index.js so specs can import any page class from '../pages'.
+     */
+    private void writeIndexModule(File pagesDir) throws Exception {
+        TreeSet<String> exports = new TreeSet<>();
+        File[] files = pagesDir.listFiles((dir, name) -> name.endsWith(".js") && !name.equals(INDEX_MODULE));
+        if (files == null) return;
+        for (File file : files) {
+            JsFileModel model = store.model(file.toPath());
+            if (model == null) continue;
+            String module = file.getName().substring(0, file.getName().length() - ".js".length());
+            for (JsFileModel.Block cls : model.getClasses()) {
+                exports.add("export { " + cls.getTitle() + " } from './" + module + "';");
+            }
+        }
+
+        StringBuilder sb = new StringBuilder("// Generated by Ghost Tester - one page class per route\n");
+        for (String line : exports) {
+            sb.append(line).append("\n");
+        }
+        Files.writeString(new File(pagesDir, INDEX_MODULE).toPath(), sb.toString());
+        AppLogger.debug("Wrote pages/index.js with " + exports.size() + " export(s)");
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,19 @@
 package org.examfgdgfd;
 
+import org.examfgdgfd.codegen.CaptureJournal;
+import org.examfgdgfd.codegen.CaptureRecord;
+import org.examfgdgfd.codegen.LocatorIndex;
+import org.examfgdgfd.codegen.RouteShard;
+import org.examfgdgfd.codegen.SpecBalancer;
+import org.examfgdgfd.codegen.WriteBehindWriter;
 import org.examfgdgfd.config.AppConfig;
+import org.examfgdgfd.core.BrowserSessionPool;
+import org.examfgdgfd.core.CaptureBatch;
+import org.examfgdgfd.core.CaptureProfiles;
 import org.examfgdgfd.core.ElementSelectionManager;
+import org.examfgdgfd.core.LaunchProgress;
+import org.examfgdgfd.core.LocatorRepair;
+import org.examfgdgfd.core.PageHarvester;
 import org.examfgdgfd.error.ErrorHandler;
 import org.examfgdgfd.logging.AppLogger;
 import org.examfgdgfd.ui.components.*;
@@ -11,20 +23,33 @@ import org.examfgdgfd.validation.InputValidator;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Ghost Tester Ultra Pro 2026 - Main UI Frame
  * Modern Cypress Test Generation Tool with glassmorphism design
  */
 public class GhostTesterUI extends JFrame {
+    private BrowserSessionPool sessionPool;
     private AutomationEngine engine;
     private FileManager fileManager;
+    private WriteBehindWriter captureWriter;
+    private final AtomicBoolean released = new AtomicBoolean(false);
     private ElementSelectionManager selectionManager;
 
     // UI Components
     private SidebarSection sidebar;
     private ConsolePanel consolePanel;
+    private CaptureQueuePanel queuePanel;
     private GradientHeader header;
 
     // Configuration
@@ -38,13 +63,18 @@ public class GhostTesterUI extends JFrame {
     private static final Color BG_DARK = new Color(15, 23, 42);
 
     public GhostTesterUI() {
-        this.engine = new AutomationEngine();
+        this.sessionPool = new BrowserSessionPool(AppConfig.SESSION_POOL_SIZE);
+        this.sessionPool.warmUp();
+        this.engine = new AutomationEngine(sessionPool);
         this.fileManager = new FileManager();
+        this.captureWriter = new WriteBehindWriter(fileManager, new CaptureJournal(CaptureJournal.DEFAULT_FILE));
 
         setupWindow();
         setupUI();
         setupEventHandlers();
         setupSelectionManager();
+        startCaptureWriter();
+        warmLocatorIndex();
 
         uiReady = true;
     }
@@ -53,6 +83,15 @@ public class GhostTesterUI extends JFrame {
         setTitle("Ghost Tester Ultra Pro - 2026");
         setSize(1400, 850);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
+        // EXIT_ON_CLOSE never reaches dispose(): flush the writer and close indexes before the exit,
+        // and from a shutdown hook when the process is stopped any other way
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                releaseResources();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::releaseResources, "ui-shutdown"));
         setLocationRelativeTo(null);
         getContentPane().setBackground(BG_DARK);
         setLayout(new BorderLayout(15, 15));
@@ -73,6 +112,10 @@ public class GhostTesterUI extends JFrame {
         consolePanel = new ConsolePanel(ACCENT, PRIMARY);
         add(consolePanel, BorderLayout.CENTER);
 
+        // Captures wait here for a locator and action, without blocking the spy
+        queuePanel = new CaptureQueuePanel(ACCENT, PRIMARY);
+        add(queuePanel, BorderLayout.EAST);
+
         setVisible(true);
     }
 
@@ -80,17 +123,45 @@ public class GhostTesterUI extends JFrame {
 
         sidebar.btnLaunch.addActionListener(e -> launchBrowser());
         sidebar.btnPlay.addActionListener(e -> toggleSpyMode());
+        sidebar.btnHarvest.addActionListener(e -> harvestPage());
+        sidebar.btnBalance.addActionListener(e -> balanceSpecs());
+        sidebar.btnRepair.addActionListener(e -> repairLocators());
+        sidebar.chkNetworkWaits.addActionListener(e -> toggleNetworkWaits());
+        sidebar.chkProfiles.addActionListener(e -> toggleProfiles());
+        sidebar.chkQuickPick.addActionListener(e -> toggleQuickPick());
     }
 
     private void setupSelectionManager() {
         this.selectionManager = new ElementSelectionManager(
             engine,
-            fileManager,
-            this,
-            consolePanel.getConsole()
+            captureWriter,
+            queuePanel,
+            consolePanel
         );
     }
 
+    private void startCaptureWriter() {
+        captureWriter.setErrorListener(message -> consolePanel.appendText("[X] " + message + "\n"));
+        new Thread(() -> {
+            int replayed = captureWriter.start();
+            if (replayed > 0) {
+                consolePanel.appendText("[+] Recovered " + replayed + " capture(s) from the last session\n");
+            }
+        }, "journal-replay").start();
+    }
+
+    /**
+     * Scan the selected project in the background so the first capture can already reuse its getters.
+     */
+    private void warmLocatorIndex() {
+        String projectPath = sidebar.getProjectPath();
+        String folderName = sidebar.getFolderName();
+        if (!InputValidator.isValidProjectPath(projectPath)) return;
+        Thread scan = new Thread(() -> selectionManager.openIndex(projectPath, folderName), "locator-index-scan");
+        scan.setDaemon(true);
+        scan.start();
+    }
+
     private void launchBrowser() {
         // Prevent multiple browser instances
         if (engine.isDriverReady()) {
@@ -110,42 +181,236 @@ public class GhostTesterUI extends JFrame {
         sidebar.btnLaunch.setText("[...] LAUNCHING...");
         AppLogger.info("Browser launch initiated: " + url);
 
-        new Thread(() -> {
-            try {
-                consolePanel.appendText("[+] Launching browser with URL: " + url + "\n");
-                engine.launch(url);
-
-                // Wait for page to load
-                int attempts = 0;
-                while (!engine.isDriverReady() && attempts < AppConfig.BROWSER_LAUNCH_TIMEOUT * 5) {
-                    Thread.sleep(AppConfig.BROWSER_READY_CHECK_INTERVAL);
-                    attempts++;
-                }
+        consolePanel.appendText("[+] Launching browser with URL: " + url + "\n");
+        LaunchProgress progress = engine.launch(url);
+        warmLocatorIndex();
 
-                if (engine.isDriverReady()) {
+        // Report each stage as it completes, with its time since launch
+        for (LaunchProgress.Stage stage : LaunchProgress.Stage.values()) {
+            progress.stage(stage).thenAccept(ms -> {
+                consolePanel.appendText("[+] " + stage.getLabel() + " (" + ms + " ms)\n");
+                AppLogger.info("Launch stage " + stage + " after " + ms + " ms");
+            });
+        }
+
+        progress.ready()
+            .orTimeout(AppConfig.BROWSER_LAUNCH_TIMEOUT, TimeUnit.SECONDS)
+            .whenComplete((ms, error) -> {
+                if (error == null) {
                     consolePanel.appendText("[+] Browser launched successfully!\n");
                     consolePanel.appendText("[+] Page loaded: " + engine.getCurrentUrl() + "\n");
                     consolePanel.appendText("[*] Ready to start SPY MODE\n");
-                    AppLogger.info("Browser ready at: " + engine.getCurrentUrl());
+                    AppLogger.info("Browser ready in " + ms + " ms at: " + engine.getCurrentUrl());
                     SwingUtilities.invokeLater(() -> sidebar.btnPlay.setEnabled(true));
-                } else {
+                } else if (error instanceof TimeoutException) {
                     consolePanel.appendText("[X] Browser launch timeout\n");
                     AppLogger.warn("Browser launch timeout after " + AppConfig.BROWSER_LAUNCH_TIMEOUT + " seconds");
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    consolePanel.appendText("[X] Error: " + cause.getMessage() + "\n");
+                    AppLogger.error("Browser launch failed - " + cause.getMessage());
                 }
-            } catch (Exception e) {
-                consolePanel.appendText("[X] Error: " + e.getMessage() + "\n");
-                AppLogger.error("Browser launch failed", e);
-            } finally {
                 SwingUtilities.invokeLater(() -> {
                     sidebar.btnLaunch.setEnabled(true);
                     sidebar.btnLaunch.setText("[*] LAUNCH BROWSER");
                 });
+            });
+    }
+
+    /**
+     * Write a getter for every interactive element on the current page in one pass.
+     */
+    private void harvestPage() {
+        if (!engine.isDriverReady()) {
+            ErrorHandler.handleError(this, "Browser Not Ready", "Launch browser first before harvesting a page");
+            return;
+        }
+
+        String projectPath = sidebar.getProjectPath();
+        String folderName = sidebar.getFolderName();
+        if (!InputValidator.isValidProjectPath(projectPath)) {
+            ErrorHandler.handleError(this, "Invalid Project Path", "Select an existing project folder first");
+            return;
+        }
+
+        sidebar.btnHarvest.setEnabled(false);
+        consolePanel.appendText("\n[*] Harvesting interactive elements...\n");
+
+        new Thread(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                List<Map<String, Object>> elements = engine.harvestElements();
+                long scanned = System.currentTimeMillis();
+
+                String pageUrl = engine.getCurrentUrl();
+                String pageClass = RouteShard.of(pageUrl).getClassName();
+                LocatorIndex index = selectionManager.openIndex(projectPath, folderName);
+                // Names already in the page class stay with their getters, a later one would shadow them
+                List<PageHarvester.HarvestedGetter> getters = new PageHarvester().harvest(elements,
+                    name -> index.hasGetter(pageClass, name));
+                int queued = 0;
+                int skipped = 0;
+                for (PageHarvester.HarvestedGetter getter : getters) {
+                    if (index.lookup(pageClass, getter.getLocator()) != null) {
+                        skipped++;
+                        continue;
+                    }
+                    index.register(getter.getName(), pageClass, getter.getLocator(),
+                        FileManager.pageObjectFile(projectPath, folderName, pageUrl));
+                    // Getter only, no spec step: journaled and written like a capture
+                    captureWriter.submit(new CaptureRecord(0, projectPath, folderName, getter.getName(), getter.toPomLine(),
+                        null, pageUrl, null, System.currentTimeMillis(), null, 0, getter.getFingerprint()));
+                    queued++;
+                }
+                long generated = System.currentTimeMillis();
+
+                consolePanel.appendText("[+] Harvested " + elements.size() + " elements into " + queued
+                    + " getters of " + pageClass + ", " + skipped + " already there (scan " + (scanned - start) + " ms, generate " + (generated - scanned) + " ms)\n");
+                AppLogger.info("Harvest queued " + queued + " getters in " + (generated - start) + " ms");
+            } catch (Exception e) {
+                consolePanel.appendText("[X] Harvest failed: " + e.getMessage() + "\n");
+                AppLogger.error("Harvest failed", e);
+            } finally {
+                SwingUtilities.invokeLater(() -> sidebar.btnHarvest.setEnabled(true));
+            }
+        }, "page-harvest").start();
+    }
+
+    /**
+     * Point the current page's broken getters at the elements they were recorded on.
+     */
+    private void repairLocators() {
+        if (!engine.isDriverReady()) {
+            ErrorHandler.handleError(this, "Browser Not Ready", "Launch browser and open the page to repair first");
+            return;
+        }
+
+        String projectPath = sidebar.getProjectPath();
+        String folderName = sidebar.getFolderName();
+        if (!InputValidator.isValidProjectPath(projectPath)) {
+            ErrorHandler.handleError(this, "Invalid Project Path", "Select an existing project folder first");
+            return;
+        }
+
+        sidebar.btnRepair.setEnabled(false);
+        consolePanel.appendText("\n[*] Checking recorded locators on this page...\n");
+
+        new Thread(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                LocatorRepair.Result result = new LocatorRepair(engine, fileManager).repair(projectPath, folderName);
+                for (String pomLine : result.getRepaired()) {
+                    consolePanel.appendText("[~] [POM] " + pomLine + "\n");
+                }
+                for (String name : result.getUnresolved()) {
+                    consolePanel.appendText("[!] page." + name + " is broken and no element matches its fingerprint\n");
+                }
+                for (String name : result.getDuplicated()) {
+                    consolePanel.appendText("[!] page." + name + " is declared more than once, rename the copies to repair it\n");
+                }
+                consolePanel.appendText("[+] " + result.getClassName() + ": " + result.getRepaired().size() + " repaired, "
+                    + result.getHealthy() + " healthy, " + result.getUnresolved().size() + " unresolved"
+                    + (result.getEdited().isEmpty() ? "" : ", " + result.getEdited().size() + " edited by hand and skipped")
+                    + " (" + (System.currentTimeMillis() - start) + " ms)\n");
+            } catch (Exception e) {
+                consolePanel.appendText("[X] Locator repair failed: " + e.getMessage() + "\n");
+                AppLogger.error("Locator repair failed", e);
+            } finally {
+                SwingUtilities.invokeLater(() -> sidebar.btnRepair.setEnabled(true));
             }
-        }).start();
+        }, "locator-repair").start();
+    }
+
+    /**
+     * Split the recorded flows into timing-balanced spec files, one per CI runner.
+     */
+    private void balanceSpecs() {
+        String projectPath = sidebar.getProjectPath();
+        String folderName = sidebar.getFolderName();
+        if (!InputValidator.isValidProjectPath(projectPath)) {
+            ErrorHandler.handleError(this, "Invalid Project Path", "Select an existing project folder first");
+            return;
+        }
+
+        String answer = JOptionPane.showInputDialog(this, "Number of parallel CI runners:", AppConfig.DEFAULT_CI_RUNNERS);
+        if (answer == null) return;
+        int runners;
+        try {
+            runners = Integer.parseInt(answer.trim());
+        } catch (NumberFormatException e) {
+            ErrorHandler.handleError(this, "Invalid Number", "Enter a whole number of runners");
+            return;
+        }
+
+        sidebar.btnBalance.setEnabled(false);
+        new Thread(() -> {
+            try {
+                SpecBalancer.Result result = new SpecBalancer().balance(Paths.get(projectPath, folderName), runners);
+                consolePanel.appendText("\n[+] Balanced specs into " + result.getShards().size() + " shard(s)"
+                    + (result.getLoginSteps() > 0 ? ", login via cy.session (" + result.getLoginSteps() + " steps)" : "") + "\n");
+                for (SpecBalancer.Shard shard : result.getShards()) {
+                    consolePanel.appendText("    " + shard.getFile().getFileName() + ": " + shard.getSteps() + " step(s) in "
+                        + shard.getTests() + " test(s), ~" + (shard.getEstimatedMs() / 1000.0) + " s\n");
+                    consolePanel.appendText("      " + shard.getRunCommand() + "\n");
+                }
+            } catch (Exception e) {
+                consolePanel.appendText("[X] Balancing failed: " + e.getMessage() + "\n");
+                AppLogger.error("Spec balancing failed", e);
+            } finally {
+                SwingUtilities.invokeLater(() -> sidebar.btnBalance.setEnabled(true));
+            }
+        }, "spec-balance").start();
+    }
+
+    /**
+     * Resolve matching captures by rule instead of queueing them.
+     */
+    private void toggleProfiles() {
+        if (!sidebar.chkProfiles.isSelected()) {
+            selectionManager.setProfiles(null);
+            consolePanel.appendText("[*] Capture profiles OFF - every capture waits in the queue\n");
+            return;
+        }
+        CaptureProfiles profiles = CaptureProfiles.load();
+        selectionManager.setProfiles(profiles);
+        consolePanel.appendText("[*] Capture profiles ON - " + profiles.size() + " rule(s) from "
+            + (Files.exists(CaptureProfiles.DEFAULT_FILE) ? CaptureProfiles.DEFAULT_FILE : "built-in defaults")
+            + ", unmatched captures go to the queue\n");
+    }
+
+    /**
+     * Switch the in-page quick pick; talks to the browser, so off the event thread.
+     */
+    private void toggleQuickPick() {
+        boolean enabled = sidebar.chkQuickPick.isSelected();
+        new Thread(() -> {
+            engine.setQuickPick(enabled);
+            consolePanel.appendText(enabled
+                ? "[*] Quick pick ON - choose with 1-9 / arrows, c t h s v w, e for wait, Enter to confirm, Esc to queue\n"
+                : "[*] Quick pick OFF - captures go to the queue panel\n");
+        }, "quick-pick-toggle").start();
+    }
+
+    /**
+     * Switch network-aware waits; talks to the browser, so off the event thread.
+     */
+    private void toggleNetworkWaits() {
+        boolean enabled = sidebar.chkNetworkWaits.isSelected();
+        new Thread(() -> {
+            if (engine.setNetworkRecording(enabled)) {
+                consolePanel.appendText(enabled
+                    ? "[*] Network waits ON - clicks reach the page, triggered requests become cy.wait('@alias')\n"
+                    : "[*] Network waits OFF - clicks are captured without reaching the page\n");
+            } else {
+                consolePanel.appendText("[!] Network waits need DevTools, not available in this browser\n");
+                SwingUtilities.invokeLater(() -> sidebar.chkNetworkWaits.setSelected(false));
+            }
+        }, "network-toggle").start();
     }
 
     private void toggleSpyMode() {
-        if (!engine.isMonitoring) {
+        if (!engine.isMonitoring()) {
             startSpyMode();
         } else {
             stopSpyMode();
@@ -158,29 +423,29 @@ public class GhostTesterUI extends JFrame {
             return;
         }
 
-        engine.isMonitoring = true;
+        selectionManager.startFlow();
+        engine.setMonitoring(true);
         sidebar.btnPlay.setText("[X] STOP SPY MODE");
         consolePanel.appendText("\n[*] SPY MODE ACTIVE - Click elements to capture them\n");
         AppLogger.info("SPY MODE started");
 
+        // Push mode: the page hands captures straight to us, no polling needed
+        if (engine.isPushCaptureAvailable()) {
+            engine.setCaptureListener(this::dispatchCapture);
+            consolePanel.appendText("[*] Capture mode: DevTools push\n");
+            return;
+        }
+
+        consolePanel.appendText("[*] Capture mode: polling every " + AppConfig.SPY_ELEMENT_CHECK_INTERVAL + " ms\n");
         spyThread = new Thread(() -> {
-            int captureCount = 0;
-            while (!Thread.currentThread().isInterrupted() && engine.isMonitoring) {
-                Map<String, Object> data = engine.getSelectedElement();
-                if (data != null) {
-                    captureCount++;
-                    String varName = "element_" + captureCount;
-                    AppLogger.debug("Element captured: " + varName);
-
-                    SwingUtilities.invokeLater(() ->
-                        selectionManager.handleElementSelection(
-                            data,
-                            sidebar.getProjectPath(),
-                            sidebar.getFolderName(),
-                            sidebar.getTargetUrl(),
-                            varName
-                        )
-                    );
+            while (!Thread.currentThread().isInterrupted() && engine.isMonitoring()) {
+                CaptureBatch batch = engine.drainSelectedElements();
+                for (Map<String, Object> data : batch.getCaptures()) {
+                    dispatchCapture(data);
+                }
+                if (batch.getDropped() > 0) {
+                    consolePanel.appendText("[!] " + batch.getDropped() + " capture(s) dropped - page buffer full\n");
+                    AppLogger.warn("Capture buffer overflow, dropped " + batch.getDropped());
                 }
                 try {
                     Thread.sleep(AppConfig.SPY_ELEMENT_CHECK_INTERVAL);
@@ -193,28 +458,75 @@ public class GhostTesterUI extends JFrame {
         spyThread.start();
     }
 
+    private void dispatchCapture(Map<String, Object> data) {
+        // Settle measurements share the capture channel but are not captures
+        if ("settle".equals(data.get("kind"))) {
+            selectionManager.recordSettle(data);
+            return;
+        }
+        // Seqs and locators address the top document, a click inside a frame cannot be replayed
+        if ("frame".equals(data.get("kind"))) {
+            consolePanel.appendText("[!] Click on <" + data.get("tag") + "> inside a frame not captured - only the top page is recorded\n");
+            return;
+        }
+        selectionManager.captureElement(
+            data,
+            sidebar.getProjectPath(),
+            sidebar.getFolderName(),
+            sidebar.getTargetUrl()
+        );
+    }
+
     private void stopSpyMode() {
-        engine.isMonitoring = false;
+        engine.setMonitoring(false);
+        engine.setCaptureListener(null);
         sidebar.btnPlay.setText("[+] START SPY MODE");
         if (spyThread != null) {
             spyThread.interrupt();
         }
         consolePanel.appendText("[X] SPY MODE STOPPED\n");
+        int queued = selectionManager.getPendingCount();
+        if (queued > 0) {
+            consolePanel.appendText("[?] " + queued + " capture(s) still waiting in the queue\n");
+        }
+        int removed = captureWriter.getRemovedCommands();
+        if (removed > 0) {
+            consolePanel.appendText("[*] Spec optimizer removed " + removed + " redundant command(s) so far\n");
+        }
+        engine.getCommandStats().values().forEach(stat -> AppLogger.info("Driver command " + stat));
     }
 
     @Override
     public void dispose() {
+        releaseResources();
+        super.dispose();
+    }
+
+    /**
+     * Flush queued captures and release the browser and indexes. Runs once, whichever exit path comes first.
+     */
+    private void releaseResources() {
+        if (!released.compareAndSet(false, true)) return;
         try {
+            if (captureWriter != null) {
+                captureWriter.shutdown(AppConfig.WRITE_BEHIND_SHUTDOWN_TIMEOUT);
+            }
+            if (selectionManager != null) {
+                selectionManager.shutdown();
+            }
             if (engine != null) {
                 AppLogger.info("Closing browser driver");
-                engine.closeDriver();
+                engine.getCommandStats().values().forEach(stat -> AppLogger.info("Driver command " + stat));
+                engine.shutdown();
+            }
+            if (sessionPool != null) {
+                sessionPool.shutdown();
             }
             AppLogger.info("Application shutting down");
             AppLogger.close();
         } catch (Exception e) {
             System.err.println("Error during shutdown: " + e.getMessage());
         }
-        super.dispose();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,192 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.logging.AppLogger;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only journal of captures that have not reached the generated files yet.
+ * Each line is JSON: a "capture" entry when a capture is accepted, an "applied" entry each time
+ * a stage of a batch (page getters, spec steps, ...) has been written, and a "commit" entry listing
+ * the sequence numbers once every stage is done. Captures without a commit are replayed after a
+ * crash, skipping the stages already applied. The journal is truncated whenever nothing is outstanding.
+ */
+public class CaptureJournal {
+    public static final String DEFAULT_FILE = System.getProperty("user.home") + "/.ghosttester/capture.journal";
+
+    private static final Json JSON = new Json();
+
+    private final Path file;
+    private final Set<Long> outstanding = new HashSet<>();
+    private final Map<Long, Set<String>> appliedStages = new HashMap<>();
+    private long lastSeq = 0;
+    private FileChannel channel;
+
+    public CaptureJournal(String path) {
+        this.file = Paths.get(path);
+    }
+
+    /**
+     * Open the journal and return captures that were accepted but never committed, oldest first.
+     */
+    public synchronized List<CaptureRecord> open() throws IOException {
+        Files.createDirectories(file.getParent());
+
+        Map<Long, CaptureRecord> pending = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    readEntry(line, pending);
+                }
+            }
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        outstanding.addAll(pending.keySet());
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Durably record a batch of captures with one fsync, assigning their sequence numbers.
+     */
+    public synchronized List<CaptureRecord> append(List<CaptureRecord> records) throws IOException {
+        if (channel == null) throw new IOException("Capture journal is not open");
+        List<CaptureRecord> journaled = new ArrayList<>(records.size());
+        StringBuilder sb = new StringBuilder();
+        for (CaptureRecord record : records) {
+            CaptureRecord numbered = record.withSeq(++lastSeq);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("op", "capture");
+            entry.putAll(numbered.toMap());
+            sb.append(JSON.toJson(entry).replace("\n", "")).append('\n');
+            journaled.add(numbered);
+        }
+        write(sb.toString());
+        for (CaptureRecord record : journaled) {
+            outstanding.add(record.getSeq());
+        }
+        return journaled;
+    }
+
+    /**
+     * Number records the journal could not take, so stages are still tracked per capture in this run.
+     */
+    public synchronized List<CaptureRecord> number(List<CaptureRecord> records) {
+        List<CaptureRecord> numbered = new ArrayList<>(records.size());
+        for (CaptureRecord record : records) {
+            numbered.add(record.withSeq(++lastSeq));
+        }
+        return numbered;
+    }
+
+    /**
+     * The records that have not been through the given stage yet.
+     */
+    public synchronized List<CaptureRecord> notApplied(List<CaptureRecord> records, String stage) {
+        List<CaptureRecord> todo = new ArrayList<>(records.size());
+        for (CaptureRecord record : records) {
+            Set<String> stages = appliedStages.get(record.getSeq());
+            if (stages == null || !stages.contains(stage)) todo.add(record);
+        }
+        return todo;
+    }
+
+    /**
+     * Durably note that a stage has been written for these captures, so a replay does not write it twice.
+     */
+    public synchronized void applied(String stage, List<CaptureRecord> records) throws IOException {
+        if (records.isEmpty()) return;
+        List<Long> seqs = new ArrayList<>(records.size());
+        for (CaptureRecord record : records) {
+            seqs.add(record.getSeq());
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("op", "applied");
+        entry.put("stage", stage);
+        entry.put("seqs", seqs);
+        write(JSON.toJson(entry).replace("\n", "") + "\n");
+        for (Long seq : seqs) {
+            appliedStages.computeIfAbsent(seq, k -> new HashSet<>()).add(stage);
+        }
+    }
+
+    /**
+     * Mark captures as written to the generated files.
+     */
+    public synchronized void commit(List<CaptureRecord> records) throws IOException {
+        List<Long> seqs = new ArrayList<>(records.size());
+        for (CaptureRecord record : records) {
+            seqs.add(record.getSeq());
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("op", "commit");
+        entry.put("seqs", seqs);
+        write(JSON.toJson(entry).replace("\n", "") + "\n");
+        outstanding.removeAll(seqs);
+        appliedStages.keySet().removeAll(seqs);
+
+        if (outstanding.isEmpty()) {
+            // Everything is on disk in the generated files, start the journal over
+            channel.truncate(0);
+            channel.force(false);
+        }
+    }
+
+    public synchronized void close() {
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            AppLogger.warn("Error closing capture journal: " + e.getMessage());
+        }
+    }
+
+    private void write(String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readEntry(String line, Map<Long, CaptureRecord> pending) {
+        if (line.isBlank()) return;
+        try {
+            Map<String, Object> entry = JSON.toType(line, Json.MAP_TYPE);
+            if ("capture".equals(entry.get("op"))) {
+                CaptureRecord record = CaptureRecord.fromMap(entry);
+                pending.put(record.getSeq(), record);
+                lastSeq = Math.max(lastSeq, record.getSeq());
+            } else if ("applied".equals(entry.get("op"))) {
+                for (Object seq : (List<Object>) entry.get("seqs")) {
+                    appliedStages.computeIfAbsent(((Number) seq).longValue(), k -> new HashSet<>()).add((String) entry.get("stage"));
+                }
+            } else if ("commit".equals(entry.get("op"))) {
+                for (Object seq : (List<Object>) entry.get("seqs")) {
+                    pending.remove(((Number) seq).longValue());
+                    appliedStages.remove(((Number) seq).longValue());
+                }
+            }
+        } catch (Exception e) {
+            // A torn last line from a crash mid-write, nothing after it was acknowledged
+            AppLogger.warn("Skipping unreadable journal entry: " + e.getMessage());
+        }
+    }
+}
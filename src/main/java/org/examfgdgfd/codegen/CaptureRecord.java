@@ -0,0 +1,148 @@
+package org.examfgdgfd.codegen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One finished capture waiting to be written: the getter and spec step plus where they go,
+ * when it was clicked within its recording flow, how long the page took to settle before it,
+ * and the fingerprint of the element behind a new getter.
+ */
+public class CaptureRecord {
+    private final long seq;
+    private final String projectPath;
+    private final String folder;
+    private final String varName;
+    private final String pomLine;
+    private final String specLine;
+    private final String url;
+    private final String flowId;
+    private final long capturedAt;
+    private final String inputType;
+    private final long settleMs;
+    private final Map<String, Object> fingerprint;
+
+    public CaptureRecord(long seq, String projectPath, String folder, String varName,
+                         String pomLine, String specLine, String url,
+                         String flowId, long capturedAt, String inputType, long settleMs,
+                         Map<String, Object> fingerprint) {
+        this.seq = seq;
+        this.projectPath = projectPath;
+        this.folder = folder;
+        this.varName = varName;
+        this.pomLine = pomLine;
+        this.specLine = specLine;
+        this.url = url;
+        this.flowId = flowId;
+        this.capturedAt = capturedAt;
+        this.inputType = inputType;
+        this.settleMs = settleMs;
+        this.fingerprint = fingerprint;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public String getProjectPath() {
+        return projectPath;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+
+    public String getVarName() {
+        return varName;
+    }
+
+    public String getPomLine() {
+        return pomLine;
+    }
+
+    public String getSpecLine() {
+        return specLine;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Recording session the capture belongs to.
+     */
+    public String getFlowId() {
+        return flowId;
+    }
+
+    /**
+     * Wall-clock time of the click in the page, epoch milliseconds.
+     */
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * The type attribute of the captured element, e.g. "password", or null.
+     */
+    public String getInputType() {
+        return inputType;
+    }
+
+    /**
+     * How long the DOM kept changing after the previous step, 0 when not measured.
+     */
+    public long getSettleMs() {
+        return settleMs;
+    }
+
+    /**
+     * Fingerprint of the captured element for locator repair, null for a reused getter.
+     */
+    public Map<String, Object> getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Same record with the sequence number assigned by the journal.
+     */
+    CaptureRecord withSeq(long newSeq) {
+        return new CaptureRecord(newSeq, projectPath, folder, varName, pomLine, specLine, url, flowId, capturedAt, inputType, settleMs, fingerprint);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("seq", seq);
+        map.put("projectPath", projectPath);
+        map.put("folder", folder);
+        map.put("varName", varName);
+        map.put("pomLine", pomLine);
+        map.put("specLine", specLine);
+        map.put("url", url);
+        map.put("flowId", flowId);
+        map.put("capturedAt", capturedAt);
+        map.put("inputType", inputType);
+        map.put("settleMs", settleMs);
+        map.put("fingerprint", fingerprint);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    static CaptureRecord fromMap(Map<String, Object> map) {
+        return new CaptureRecord(
+            ((Number) map.get("seq")).longValue(),
+            (String) map.get("projectPath"),
+            (String) map.get("folder"),
+            (String) map.get("varName"),
+            (String) map.get("pomLine"),
+            (String) map.get("specLine"),
+            (String) map.get("url"),
+            (String) map.get("flowId"),
+            // Journals written before timings were recorded have none
+            map.get("capturedAt") instanceof Number ? ((Number) map.get("capturedAt")).longValue() : 0L,
+            (String) map.get("inputType"),
+            map.get("settleMs") instanceof Number ? ((Number) map.get("settleMs")).longValue() : 0L,
+            map.get("fingerprint") instanceof Map ? (Map<String, Object>) map.get("fingerprint") : null
+        );
+    }
+}
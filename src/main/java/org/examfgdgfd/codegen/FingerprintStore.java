@@ -0,0 +1,108 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.logging.AppLogger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What each generated getter pointed at when it was recorded: tag, text, attributes, ancestor path
+ * and position, plus the locator written for it. One JSON file per page class under
+ * .ghosttester/fingerprints, read by locator repair to find the element again after the app changes.
+ */
+public class FingerprintStore {
+    private static final String FINGERPRINT_DIR = ".ghosttester/fingerprints";
+    private static final int VERSION = 1;
+    private static final List<String> FIELDS =
+        List.of("tag", "id", "text", "class", "type", "name", "role", "attrs", "ancestors", "position");
+    private static final Json JSON = new Json();
+
+    /**
+     * Fingerprint of a captured element and the locator chosen for it.
+     *
+     * @param element capture or harvest data from the page tracker
+     * @param css     css part of the locator, or null
+     * @param text    text part of the locator, or null
+     */
+    public static Map<String, Object> fingerprint(Map<String, Object> element, String locator, String css, String text) {
+        Map<String, Object> print = new LinkedHashMap<>();
+        for (String field : FIELDS) {
+            Object value = element.get(field);
+            if (value != null) print.put(field, value);
+        }
+        print.put("locator", locator);
+        print.put("locatorCss", css);
+        print.put("locatorText", text);
+        return print;
+    }
+
+    /**
+     * Fingerprints of a page class by getter name, empty when none were recorded.
+     */
+    public synchronized Map<String, Map<String, Object>> load(Path root, String className) throws IOException {
+        Path file = file(root, className);
+        Map<String, Map<String, Object>> getters = new TreeMap<>();
+        if (!Files.exists(file)) return getters;
+        try {
+            Map<String, Object> stored = JSON.toType(Files.readString(file, StandardCharsets.UTF_8), Json.MAP_TYPE);
+            Object saved = stored.get("getters");
+            if (saved instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) saved).entrySet()) {
+                    if (entry.getValue() instanceof Map) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> print = (Map<String, Object>) entry.getValue();
+                        getters.put(entry.getKey().toString(), print);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            AppLogger.warn("Ignoring unreadable fingerprints " + file + ": " + e.getMessage());
+        }
+        return getters;
+    }
+
+    /**
+     * Add or replace fingerprints of a page class, keyed by getter name.
+     */
+    public synchronized void putAll(Path root, String className, Map<String, Map<String, Object>> prints) throws IOException {
+        if (prints.isEmpty()) return;
+        Map<String, Map<String, Object>> getters = load(root, className);
+        getters.putAll(prints);
+
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("version", VERSION);
+        stored.put("className", className);
+        stored.put("getters", getters);
+
+        Path file = file(root, className);
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, JSON.toJson(stored), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Record the fingerprints carried by written captures of one page class.
+     */
+    public void append(Path root, String className, List<CaptureRecord> records) throws IOException {
+        Map<String, Map<String, Object>> prints = new LinkedHashMap<>();
+        for (CaptureRecord record : records) {
+            if (record.getPomLine() != null && record.getFingerprint() != null) {
+                prints.put(record.getVarName(), record.getFingerprint());
+            }
+        }
+        putAll(root, className, prints);
+    }
+
+    private static Path file(Path root, String className) {
+        return root.resolve(FINGERPRINT_DIR).resolve(className + ".json");
+    }
+}
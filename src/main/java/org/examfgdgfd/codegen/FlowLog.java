@@ -0,0 +1,127 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.logging.AppLogger;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recorded order and timing of every spec step in a project folder, one JSON line per step
+ * in .ghosttester/flow.jsonl. It is what spec balancing works from.
+ */
+public class FlowLog {
+    private static final String FLOW_FILE = ".ghosttester/flow.jsonl";
+    private static final Json JSON = new Json();
+
+    /**
+     * One recorded step.
+     */
+    public static class Step {
+        private final String flowId;
+        private final String url;
+        private final String specLine;
+        private final long capturedAt;
+        private final String inputType;
+        private final long settleMs;
+
+        Step(String flowId, String url, String specLine, long capturedAt, String inputType, long settleMs) {
+            this.flowId = flowId;
+            this.url = url;
+            this.specLine = specLine;
+            this.capturedAt = capturedAt;
+            this.inputType = inputType;
+            this.settleMs = settleMs;
+        }
+
+        public String getFlowId() {
+            return flowId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getSpecLine() {
+            return specLine;
+        }
+
+        public long getCapturedAt() {
+            return capturedAt;
+        }
+
+        public String getInputType() {
+            return inputType;
+        }
+
+        public long getSettleMs() {
+            return settleMs;
+        }
+    }
+
+    /**
+     * Append the steps of written captures. Called from the write-behind thread only.
+     */
+    public void append(Path root, List<CaptureRecord> records) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (CaptureRecord record : records) {
+            if (record.getSpecLine() == null || record.getSpecLine().isEmpty()) continue;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("flowId", record.getFlowId());
+            entry.put("url", record.getUrl());
+            entry.put("specLine", record.getSpecLine());
+            entry.put("capturedAt", record.getCapturedAt());
+            entry.put("inputType", record.getInputType());
+            entry.put("settleMs", record.getSettleMs());
+            sb.append(JSON.toJson(entry).replace("\n", "")).append('\n');
+        }
+        if (sb.length() == 0) return;
+
+        Path file = root.resolve(FLOW_FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * All recorded steps in order. A step journaled twice by a crash replay is read once.
+     */
+    public List<Step> read(Path root) throws IOException {
+        List<Step> steps = new ArrayList<>();
+        Path file = root.resolve(FLOW_FILE);
+        if (!Files.exists(file)) return steps;
+
+        Set<String> seen = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    Map<String, Object> entry = JSON.toType(line, Json.MAP_TYPE);
+                    Step step = new Step((String) entry.get("flowId"), (String) entry.get("url"),
+                        (String) entry.get("specLine"), number(entry.get("capturedAt")),
+                        (String) entry.get("inputType"), number(entry.get("settleMs")));
+                    if (seen.add(step.flowId + "\n" + step.capturedAt + "\n" + step.specLine)) {
+                        steps.add(step);
+                    }
+                } catch (Exception e) {
+                    AppLogger.warn("Skipping unreadable flow entry: " + e.getMessage());
+                }
+            }
+        }
+        return steps;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,117 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.logging.AppLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps a {@link JsFileModel} per generated file and applies edits to the file region they touch.
+ * Only the bytes from the edit offset to the end of the file are rewritten; the model is shifted
+ * in place instead of being parsed again. When the file's size or mtime differs from what we
+ * last wrote, someone else edited it, so it is parsed again with a full read.
+ */
+public class GeneratedFileStore {
+
+    private static class Entry {
+        JsFileModel model;
+        long size;
+        long lastModified;
+    }
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Plan an edit against the current model of the file and write it.
+     *
+     * @param initialContent content to create the file with when it does not exist
+     */
+    public synchronized void edit(Path file, String initialContent,
+                                  Function<JsFileModel, JsFileModel.Edit> planner) throws IOException {
+        Entry entry = load(file, initialContent);
+        JsFileModel.Edit edit;
+        try {
+            edit = planner.apply(entry.model);
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage() + " in " + file.getFileName(), e);
+        }
+        writeRegion(file, edit);
+        entry.model.apply(edit);
+        entry.size = Files.size(file);
+        entry.lastModified = Files.getLastModifiedTime(file).toMillis();
+    }
+
+    /**
+     * Current model of a file, parsed on first use or after an outside edit. Null when the file does not exist.
+     */
+    public synchronized JsFileModel model(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        return load(file, null).model;
+    }
+
+    /**
+     * Forget what we know about a file, e.g. after rewriting it through another path.
+     */
+    public void invalidate(Path file) {
+        entries.remove(file);
+    }
+
+    private Entry load(Path file, String initialContent) throws IOException {
+        if (!Files.exists(file)) {
+            Files.writeString(file, initialContent);
+            entries.remove(file);
+        }
+
+        Entry entry = entries.get(file);
+        if (entry != null && !isStale(file, entry)) return entry;
+
+        long start = System.currentTimeMillis();
+        entry = new Entry();
+        entry.model = JsFileModel.parse(Files.readString(file));
+        entry.size = Files.size(file);
+        entry.lastModified = Files.getLastModifiedTime(file).toMillis();
+        entries.put(file, entry);
+        AppLogger.debug("Parsed " + file.getFileName() + ": " + entry.model.getClasses().size() + " class(es), "
+                + entry.model.getTestBlocks().size() + " block(s) in " + (System.currentTimeMillis() - start) + " ms");
+        return entry;
+    }
+
+    private boolean isStale(Path file, Entry entry) throws IOException {
+        return Files.size(file) != entry.size || Files.getLastModifiedTime(file).toMillis() != entry.lastModified;
+    }
+
+    /**
+     * Replace the edit's range and shift everything after it, touching nothing before the offset.
+     */
+    private void writeRegion(Path file, JsFileModel.Edit edit) throws IOException {
+        byte[] replacement = edit.getText().getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long suffixStart = edit.getOffset() + edit.getRemoved();
+            int suffixLength = (int) (channel.size() - suffixStart);
+            ByteBuffer suffix = ByteBuffer.allocate(suffixLength);
+            long readAt = suffixStart;
+            while (suffix.hasRemaining()) {
+                int read = channel.read(suffix, readAt);
+                if (read < 0) break;
+                readAt += read;
+            }
+            suffix.flip();
+
+            ByteBuffer out = ByteBuffer.allocate(replacement.length + suffixLength);
+            out.put(replacement).put(suffix).flip();
+            long position = edit.getOffset();
+            while (out.hasRemaining()) {
+                position += channel.write(out, position);
+            }
+            channel.truncate(position);
+        }
+    }
+}
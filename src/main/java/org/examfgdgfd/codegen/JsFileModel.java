@@ -0,0 +1,471 @@
+package org.examfgdgfd.codegen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight structural model of a generated Cypress file: page object classes with their
+ * getters, describe/it blocks and the names imported from '../pages', each with byte ranges into the file.
+ * Parsed once, then kept current by applying every edit to it, so inserting a getter
+ * or a step is a lookup instead of a re-scan.
+ */
+public class JsFileModel {
+    private static final Pattern CLASS_HEADER =
+        Pattern.compile("^(?:export\\s+)?(?:default\\s+)?class\\s+([A-Za-z_$][\\w$]*)(?:\\s+extends\\s+[\\w$.]+)?$");
+    private static final Pattern MEMBER_HEADER =
+        Pattern.compile("^(?:static\\s+)?(get|set|async)?\\s*([A-Za-z_$][\\w$]*)\\s*\\([^)]*\\)$");
+    private static final Pattern BLOCK_HEADER = Pattern.compile(
+        "^(describe|context|it|specify)(?:\\.(?:only|skip))?\\s*\\(\\s*(['\"`])((?:\\\\.|(?!\\2).)*)\\2\\s*,\\s*" +
+        "(?:async\\s*)?(?:function\\s*[\\w$]*\\s*\\([^)]*\\)|\\([^)]*\\)\\s*=>|[\\w$]+\\s*=>)$");
+    private static final Pattern PAGES_IMPORT_TAIL = Pattern.compile("\\s*from\\s*(['\"])\\.\\./pages\\1");
+    private static final Pattern GETTER_LINE =
+        Pattern.compile("^\\s*get\\s+([A-Za-z_$][\\w$]*)\\s*\\(\\s*\\)\\s*\\{\\s*return\\s+(.*?);?\\s*}\\s*$");
+
+    /**
+     * A getter inside a page object class. End includes the trailing newline when there is one.
+     */
+    public static class Getter {
+        private final String name;
+        private final String locator;
+        long start;
+        long end;
+
+        Getter(String name, String locator, long start, long end) {
+            this.name = name;
+            this.locator = locator;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLocator() {
+            return locator;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+    }
+
+    /**
+     * A brace-delimited block: a class body or a describe/it callback body.
+     */
+    public static class Block {
+        private final String kind;
+        private final String title;
+        long open;
+        long close;
+        // Start of the line holding the closing brace when only whitespace precedes it, else -1
+        long closeLineStart;
+        final List<Getter> getters = new ArrayList<>();
+
+        Block(String kind, String title, long open) {
+            this.kind = kind;
+            this.title = title;
+            this.open = open;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public long getOpen() {
+            return open;
+        }
+
+        public long getClose() {
+            return close;
+        }
+
+        public List<Getter> getGetters() {
+            return Collections.unmodifiableList(getters);
+        }
+
+        long insertionPoint() {
+            return closeLineStart >= 0 ? closeLineStart : close;
+        }
+    }
+
+    /**
+     * Replace removed bytes at offset with text. Getters named in added are registered after applying.
+     */
+    public static class Edit {
+        final long offset;
+        final long removed;
+        final String text;
+        final Block target;
+        final List<String> addedGetterLines;
+        final Getter replacedGetter;
+        final List<String> addedImports;
+
+        Edit(long offset, long removed, String text, Block target, List<String> addedGetterLines, Getter replacedGetter) {
+            this(offset, removed, text, target, addedGetterLines, replacedGetter, Collections.emptyList());
+        }
+
+        Edit(long offset, long removed, String text, Block target, List<String> addedGetterLines, Getter replacedGetter,
+             List<String> addedImports) {
+            this.offset = offset;
+            this.removed = removed;
+            this.text = text;
+            this.target = target;
+            this.addedGetterLines = addedGetterLines;
+            this.replacedGetter = replacedGetter;
+            this.addedImports = addedImports;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getRemoved() {
+            return removed;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    private final List<Block> classes = new ArrayList<>();
+    private final List<Block> testBlocks = new ArrayList<>();
+    private final List<String> pageImports = new ArrayList<>();
+    // Just after the last name imported from '../pages', or -1 without such an import
+    private long pageImportsEnd = -1;
+
+    public List<Block> getClasses() {
+        return Collections.unmodifiableList(classes);
+    }
+
+    public List<Block> getTestBlocks() {
+        return Collections.unmodifiableList(testBlocks);
+    }
+
+    /**
+     * Names in the import { ... } from '../pages' statement, empty without one.
+     */
+    public List<String> getPageImports() {
+        return Collections.unmodifiableList(pageImports);
+    }
+
+    public Getter findGetter(String name) {
+        for (Block cls : classes) {
+            for (Getter getter : cls.getters) {
+                if (getter.name.equals(name)) return getter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Edit that inserts getters at the end of the last class.
+     */
+    public Edit insertGetters(List<String> pomLines) {
+        if (classes.isEmpty()) {
+            throw new IllegalStateException("No page object class found");
+        }
+        Block cls = classes.get(classes.size() - 1);
+        StringBuilder sb = new StringBuilder(cls.closeLineStart >= 0 ? "" : "\n");
+        for (String line : pomLines) {
+            sb.append("  ").append(line).append("\n");
+        }
+        return new Edit(cls.insertionPoint(), 0, sb.toString(), cls, pomLines, null);
+    }
+
+    /**
+     * Edit that appends steps at the end of the last it/specify block.
+     */
+    public Edit insertSteps(List<String> specLines) {
+        Block target = null;
+        for (Block block : testBlocks) {
+            if (("it".equals(block.kind) || "specify".equals(block.kind)) && (target == null || block.open > target.open)) {
+                target = block;
+            }
+        }
+        if (target == null) {
+            throw new IllegalStateException("No it() block found");
+        }
+        StringBuilder sb = new StringBuilder(target.closeLineStart >= 0 ? "" : "\n");
+        for (String step : specLines) {
+            // A step may carry its own setup and wait lines
+            for (String line : step.split("\n")) {
+                sb.append("    ").append(line).append("\n");
+            }
+        }
+        return new Edit(target.insertionPoint(), 0, sb.toString(), target, Collections.emptyList(), null);
+    }
+
+    /**
+     * Edit that adds names to the import from '../pages'.
+     */
+    public Edit addPageImports(List<String> names) {
+        if (pageImportsEnd < 0) {
+            throw new IllegalStateException("No import from '../pages' found");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String name : names) {
+            sb.append(sb.length() == 0 && pageImports.isEmpty() ? "" : ", ").append(name);
+        }
+        return new Edit(pageImportsEnd, 0, sb.toString(), null, Collections.emptyList(), null, names);
+    }
+
+    /**
+     * Edit that swaps one getter for a new line, leaving everything around it untouched.
+     */
+    public Edit replaceGetter(String name, String pomLine) {
+        Getter getter = findGetter(name);
+        if (getter == null) {
+            throw new IllegalStateException("Getter not found: " + name);
+        }
+        Block owner = null;
+        for (Block cls : classes) {
+            if (cls.getters.contains(getter)) owner = cls;
+        }
+        return new Edit(getter.start, getter.end - getter.start, "  " + pomLine + "\n", owner, List.of(pomLine), getter);
+    }
+
+    /**
+     * Bring offsets up to date after the edit has been written to disk.
+     */
+    void apply(Edit edit) {
+        long delta = utf8Length(edit.text) - edit.removed;
+        long boundary = edit.offset + edit.removed;
+        if (pageImportsEnd >= boundary) pageImportsEnd += delta;
+        pageImports.addAll(edit.addedImports);
+        for (Block block : allBlocks()) {
+            if (block.open >= boundary) block.open += delta;
+            if (block.close >= boundary) block.close += delta;
+            if (block.closeLineStart >= boundary) block.closeLineStart += delta;
+            for (Getter getter : block.getters) {
+                if (getter.start >= boundary) getter.start += delta;
+                // Ends are exclusive: a getter ending exactly where text is inserted stays put
+                if (getter.end > edit.offset && getter.end >= boundary) getter.end += delta;
+            }
+        }
+
+        if (edit.target == null) return;
+        int index = edit.target.getters.size();
+        if (edit.replacedGetter != null) {
+            index = edit.target.getters.indexOf(edit.replacedGetter);
+            edit.target.getters.remove(index);
+        }
+
+        long position = edit.offset + (edit.text.startsWith("\n") ? 1 : 0);
+        for (String line : edit.addedGetterLines) {
+            String written = "  " + line + "\n";
+            Matcher m = GETTER_LINE.matcher(line);
+            if (m.matches()) {
+                edit.target.getters.add(index++, new Getter(m.group(1), m.group(2).trim(), position, position + utf8Length(written)));
+            }
+            position += utf8Length(written);
+        }
+    }
+
+    private List<Block> allBlocks() {
+        List<Block> all = new ArrayList<>(classes);
+        all.addAll(testBlocks);
+        return all;
+    }
+
+    /**
+     * Scan the source once. Strings, template literals and comments are skipped when matching braces.
+     */
+    public static JsFileModel parse(String content) {
+        JsFileModel model = new JsFileModel();
+        Deque<Frame> stack = new ArrayDeque<>();
+        StringBuilder header = new StringBuilder();
+        long headerStart = -1;
+        long lineStart = 0;
+        boolean onlyWhitespaceOnLine = true;
+        long bytes = 0;
+
+        int i = 0;
+        int n = content.length();
+        while (i < n) {
+            char c = content.charAt(i);
+
+            // Comments: skipped entirely, never part of a header
+            if (c == '/' && i + 1 < n && (content.charAt(i + 1) == '/' || content.charAt(i + 1) == '*')) {
+                int end = content.charAt(i + 1) == '/'
+                    ? indexOrEnd(content, "\n", i + 2)
+                    : Math.min(n, indexOrEnd(content, "*/", i + 2) + 2);
+                bytes += utf8Length(content.substring(i, end));
+                i = end;
+                continue;
+            }
+
+            // String and template literals: kept in the header so block titles survive
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = skipString(content, i, c);
+                String literal = content.substring(i, end);
+                if (headerStart < 0) headerStart = bytes;
+                header.append(literal);
+                bytes += utf8Length(literal);
+                onlyWhitespaceOnLine = false;
+                i = end;
+                continue;
+            }
+
+            if (c == '\n') {
+                lineStart = bytes + 1;
+                onlyWhitespaceOnLine = true;
+                header.append(' ');
+            } else if (c == '{') {
+                Frame parent = stack.peek();
+                stack.push(model.open(header.toString().trim(), parent, bytes, headerStart, content, i));
+                header.setLength(0);
+                headerStart = -1;
+                onlyWhitespaceOnLine = false;
+            } else if (c == '}') {
+                Frame frame = stack.poll();
+                if (frame != null) {
+                    long endOfGetter = bytes + 1 + (i + 1 < n && content.charAt(i + 1) == '\n' ? 1 : 0);
+                    model.close(frame, stack.peek(), bytes, onlyWhitespaceOnLine ? lineStart : -1, endOfGetter, content, i);
+                }
+                header.setLength(0);
+                headerStart = -1;
+                onlyWhitespaceOnLine = false;
+            } else if (c == ';') {
+                header.setLength(0);
+                headerStart = -1;
+                onlyWhitespaceOnLine = false;
+            } else if (!Character.isWhitespace(c)) {
+                if (headerStart < 0) headerStart = onlyWhitespaceOnLine ? lineStart : bytes;
+                header.append(c);
+                onlyWhitespaceOnLine = false;
+            } else {
+                header.append(c);
+            }
+
+            bytes += utf8Length(c, i + 1 < n ? content.charAt(i + 1) : 0);
+            if (Character.isHighSurrogate(c) && i + 1 < n) {
+                i++;
+            }
+            i++;
+        }
+        return model;
+    }
+
+    private static class Frame {
+        final Block block;
+        final String getterName;
+        final long memberStart;
+        final int bodyStartChar;
+        final boolean importList;
+
+        Frame(Block block, String getterName, long memberStart, int bodyStartChar) {
+            this(block, getterName, memberStart, bodyStartChar, false);
+        }
+
+        Frame(Block block, String getterName, long memberStart, int bodyStartChar, boolean importList) {
+            this.block = block;
+            this.getterName = getterName;
+            this.memberStart = memberStart;
+            this.bodyStartChar = bodyStartChar;
+            this.importList = importList;
+        }
+    }
+
+    private Frame open(String header, Frame parent, long offset, long headerStart, String content, int charIndex) {
+        String compact = header.replaceAll("\\s+", " ");
+
+        Matcher cls = CLASS_HEADER.matcher(compact);
+        if (cls.matches()) {
+            Block block = new Block("class", cls.group(1), offset);
+            classes.add(block);
+            return new Frame(block, null, -1, charIndex + 1);
+        }
+
+        if (parent != null && parent.block != null && "class".equals(parent.block.kind)) {
+            Matcher member = MEMBER_HEADER.matcher(compact);
+            if (member.matches() && "get".equals(member.group(1))) {
+                return new Frame(null, member.group(2), headerStart, charIndex + 1);
+            }
+        }
+
+        if (parent == null && "import".equals(compact)) {
+            return new Frame(null, null, -1, charIndex + 1, true);
+        }
+
+        Matcher test = BLOCK_HEADER.matcher(compact);
+        if (test.matches()) {
+            Block block = new Block(test.group(1), test.group(3), offset);
+            testBlocks.add(block);
+            return new Frame(block, null, -1, charIndex + 1);
+        }
+        return new Frame(null, null, -1, charIndex + 1);
+    }
+
+    private void close(Frame frame, Frame parent, long offset, long closeLineStart, long endOfGetter, String content, int charIndex) {
+        if (frame.block != null) {
+            frame.block.close = offset;
+            frame.block.closeLineStart = closeLineStart;
+            return;
+        }
+        if (frame.importList) {
+            Matcher tail = PAGES_IMPORT_TAIL.matcher(content).region(charIndex + 1, content.length());
+            if (!tail.lookingAt()) return;
+            String body = content.substring(frame.bodyStartChar, charIndex);
+            for (String name : body.split(",")) {
+                if (!name.trim().isEmpty()) pageImports.add(name.trim());
+            }
+            // Names are ASCII identifiers, so trailing whitespace is as many bytes as chars
+            int trailing = body.length() - body.replaceAll("[\\s,]+$", "").length();
+            pageImportsEnd = offset - trailing;
+            return;
+        }
+        if (frame.getterName != null && parent != null && parent.block != null) {
+            String body = content.substring(frame.bodyStartChar, charIndex).trim();
+            String locator = body.startsWith("return") ? body.substring("return".length()).trim() : body;
+            if (locator.endsWith(";")) locator = locator.substring(0, locator.length() - 1).trim();
+            parent.block.getters.add(new Getter(frame.getterName, locator, frame.memberStart, endOfGetter));
+        }
+    }
+
+    private static int skipString(String content, int start, char quote) {
+        int i = start + 1;
+        while (i < content.length()) {
+            char c = content.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) return i + 1;
+            if (c == '\n' && quote != '`') return i;
+            i++;
+        }
+        return content.length();
+    }
+
+    private static int indexOrEnd(String content, String token, int from) {
+        int index = content.indexOf(token, from);
+        return index < 0 ? content.length() : index;
+    }
+
+    static long utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static int utf8Length(char c, char next) {
+        if (c < 0x80) return 1;
+        if (c < 0x800) return 2;
+        if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next)) return 4;
+        return 3;
+    }
+}
@@ -0,0 +1,441 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.logging.AppLogger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Project-wide map from page class and normalized locator to the getter that already returns it.
+ * Built by scanning cypress/pages and cypress/e2e in parallel, persisted under
+ * .ghosttester/ so unchanged files are not parsed again next session, and kept
+ * current by a file watcher.
+ */
+public class LocatorIndex {
+    private static final String[] SCANNED_DIRS = {"cypress/pages", "cypress/e2e"};
+    private static final String INDEX_FILE = ".ghosttester/locator-index.json";
+    private static final Json JSON = new Json();
+
+    /**
+     * An existing getter: its name, the class declaring it and the file it lives in.
+     */
+    public static class Entry {
+        private final String getterName;
+        private final String className;
+        private final String locator;
+        private final Path file;
+
+        Entry(String getterName, String className, String locator, Path file) {
+            this.getterName = getterName;
+            this.className = className;
+            this.locator = locator;
+            this.file = file;
+        }
+
+        public String getGetterName() {
+            return getterName;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getLocator() {
+            return locator;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+    }
+
+    private static class FileIndex {
+        final long size;
+        final long lastModified;
+        final List<Entry> entries;
+
+        FileIndex(long size, long lastModified, List<Entry> entries) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.entries = entries;
+        }
+    }
+
+    private final Path root;
+    private final Map<String, Entry> bySelector = new ConcurrentHashMap<>();
+    private final Map<Path, FileIndex> byFile = new ConcurrentHashMap<>();
+    // Getter names per page class and the highest number per name prefix (element_ -> 12)
+    private final Map<String, Set<String>> namesByClass = new ConcurrentHashMap<>();
+    private final Map<String, Integer> highestByPrefix = new ConcurrentHashMap<>();
+    private WatchService watcher;
+    private Thread watchThread;
+
+    /**
+     * @param root project folder holding the cypress directory
+     */
+    public LocatorIndex(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Scan the project, reusing persisted results for files that did not change, and start watching.
+     */
+    public synchronized LocatorIndex open() {
+        long start = System.currentTimeMillis();
+        Map<Path, FileIndex> persisted = loadPersisted();
+
+        List<Path> files = new ArrayList<>();
+        for (String dir : SCANNED_DIRS) {
+            Path path = root.resolve(dir);
+            if (!Files.isDirectory(path)) continue;
+            try (Stream<Path> walk = Files.walk(path)) {
+                walk.filter(LocatorIndex::isScript).forEach(files::add);
+            } catch (IOException e) {
+                AppLogger.warn("Cannot scan " + path + ": " + e.getMessage());
+            }
+        }
+
+        AtomicInteger reused = new AtomicInteger();
+        Map<Path, FileIndex> scanned = files.parallelStream()
+            .collect(Collectors.toConcurrentMap(file -> file, file -> {
+                FileIndex cached = persisted.get(file);
+                if (cached != null && isCurrent(file, cached)) {
+                    reused.incrementAndGet();
+                    return cached;
+                }
+                return parse(file);
+            }));
+        scanned.forEach(this::put);
+        save();
+        startWatching();
+
+        AppLogger.info("Locator index for " + root.getFileName() + ": " + bySelector.size() + " locator(s) in "
+            + files.size() + " file(s), " + reused.get() + " from cache, " + (System.currentTimeMillis() - start) + " ms");
+        return this;
+    }
+
+    /**
+     * The getter of the given page class already returning this locator, or null.
+     */
+    public Entry lookup(String className, String locatorCode) {
+        return bySelector.get(key(className, locatorCode));
+    }
+
+    /**
+     * Record a getter that is about to be written, so the next capture of the same element reuses it.
+     */
+    public void register(String getterName, String className, String locatorCode, Path file) {
+        Entry entry = new Entry(getterName, className, locatorCode, file);
+        noteName(entry);
+        bySelector.putIfAbsent(key(className, locatorCode), entry);
+    }
+
+    /**
+     * Whether the page class declares, or is about to receive, a getter with this name. Names are only
+     * ever added: a getter deleted since stays taken, so its name never moves to a different element.
+     */
+    public boolean hasGetter(String className, String getterName) {
+        Set<String> names = namesByClass.get(className);
+        return names != null && names.contains(getterName);
+    }
+
+    /**
+     * Highest N among getters named prefix + N in any page class, 0 when there are none.
+     */
+    public int highestNumbered(String prefix) {
+        return highestByPrefix.getOrDefault(prefix, 0);
+    }
+
+    private void noteName(Entry entry) {
+        namesByClass.computeIfAbsent(entry.className, k -> ConcurrentHashMap.newKeySet()).add(entry.getterName);
+        String name = entry.getterName;
+        int digits = name.length();
+        while (digits > 0 && Character.isDigit(name.charAt(digits - 1))) digits--;
+        if (digits == name.length() || digits == 0 || name.length() - digits > 9) return;
+        highestByPrefix.merge(name.substring(0, digits), Integer.parseInt(name.substring(digits)), Math::max);
+    }
+
+    public synchronized void close() {
+        save();
+        try {
+            if (watcher != null) watcher.close();
+        } catch (IOException e) {
+            AppLogger.warn("Error closing locator index watcher: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Canonical form of a locator expression: whitespace outside strings removed, strings single-quoted.
+     */
+    public static String normalize(String code) {
+        StringBuilder sb = new StringBuilder(code.length());
+        int i = 0;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                sb.append('\'');
+                i++;
+                while (i < code.length() && code.charAt(i) != c) {
+                    char inner = code.charAt(i);
+                    if (inner == '\\' && i + 1 < code.length()) {
+                        char escaped = code.charAt(i + 1);
+                        // \" and \` need no escape once single-quoted
+                        if (escaped != '"' && escaped != '`') sb.append('\\');
+                        sb.append(escaped);
+                        i += 2;
+                        continue;
+                    }
+                    if (inner == '\'') sb.append('\\');
+                    sb.append(inner);
+                    i++;
+                }
+                sb.append('\'');
+                i++;
+            } else {
+                if (!Character.isWhitespace(c)) sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String key(String className, String locatorCode) {
+        return className + "\n" + normalize(locatorCode);
+    }
+
+    private void put(Path file, FileIndex index) {
+        FileIndex previous = byFile.put(file, index);
+        if (previous != null) {
+            for (Entry entry : previous.entries) {
+                bySelector.remove(key(entry.className, entry.locator), entry);
+            }
+        }
+        for (Entry entry : index.entries) {
+            noteName(entry);
+            bySelector.merge(key(entry.className, entry.locator), entry, (existing, added) ->
+                // A registered getter that has now been written is replaced by its parsed entry
+                existing.file.equals(added.file) && existing.getterName.equals(added.getterName) ? added : existing);
+        }
+    }
+
+    private void remove(Path file) {
+        FileIndex previous = byFile.remove(file);
+        if (previous == null) return;
+        for (Entry entry : previous.entries) {
+            bySelector.remove(key(entry.className, entry.locator), entry);
+        }
+    }
+
+    private static FileIndex parse(Path file) {
+        List<Entry> entries = new ArrayList<>();
+        long size = -1;
+        long lastModified = -1;
+        try {
+            size = Files.size(file);
+            lastModified = Files.getLastModifiedTime(file).toMillis();
+            JsFileModel model = JsFileModel.parse(Files.readString(file));
+            for (JsFileModel.Block cls : model.getClasses()) {
+                for (JsFileModel.Getter getter : cls.getGetters()) {
+                    entries.add(new Entry(getter.getName(), cls.getTitle(), getter.getLocator(), file));
+                }
+            }
+        } catch (IOException e) {
+            AppLogger.warn("Cannot index " + file + ": " + e.getMessage());
+        }
+        return new FileIndex(size, lastModified, entries);
+    }
+
+    private static boolean isCurrent(Path file, FileIndex index) {
+        try {
+            return Files.size(file) == index.size && Files.getLastModifiedTime(file).toMillis() == index.lastModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isScript(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(".js");
+    }
+
+    private void startWatching() {
+        try {
+            watcher = root.getFileSystem().newWatchService();
+            for (String dir : SCANNED_DIRS) {
+                Path path = root.resolve(dir);
+                if (Files.isDirectory(path)) {
+                    watchTree(path);
+                    continue;
+                }
+                // Not created yet: watch the closest existing parent to see it appear
+                Path parent = path.getParent();
+                while (parent != null && parent.startsWith(root) && !Files.isDirectory(parent)) parent = parent.getParent();
+                if (parent != null && parent.startsWith(root)) register(parent);
+            }
+        } catch (IOException e) {
+            AppLogger.warn("File watching unavailable, locator index may go stale: " + e.getMessage());
+            return;
+        }
+
+        watchThread = new Thread(this::watchLoop, "locator-index-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    private void register(Path dir) throws IOException {
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Watch a directory that is or leads to a scanned one, and every such directory below it. Scripts
+     * found are indexed, a new directory may have been filled before its watch was registered.
+     */
+    private void watchTree(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) walk::iterator) {
+                if (Files.isDirectory(path)) {
+                    if (isScanned(path) || leadsToScanned(path)) register(path);
+                } else if (isScanned(path) && isScript(path)) {
+                    put(path, parse(path));
+                }
+            }
+        }
+    }
+
+    private boolean isScanned(Path path) {
+        for (String dir : SCANNED_DIRS) {
+            if (path.startsWith(root.resolve(dir))) return true;
+        }
+        return false;
+    }
+
+    private boolean leadsToScanned(Path path) {
+        for (String dir : SCANNED_DIRS) {
+            if (root.resolve(dir).startsWith(path)) return true;
+        }
+        return false;
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        AppLogger.debug("Locator index watch overflow, rescanning " + root);
+                        rescan();
+                        continue;
+                    }
+                    Path changed = dir.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        removeTree(changed);
+                    } else if (Files.isDirectory(changed)) {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                                && (isScanned(changed) || leadsToScanned(changed))) {
+                            watchTree(changed);
+                        }
+                    } else if (isScanned(changed) && isScript(changed)) {
+                        put(changed, parse(changed));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Index closed
+        } catch (IOException e) {
+            AppLogger.warn("Locator index watcher stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop a deleted script, or every indexed script below a deleted directory.
+     */
+    private void removeTree(Path path) {
+        for (Path file : new ArrayList<>(byFile.keySet())) {
+            if (file.startsWith(path)) remove(file);
+        }
+    }
+
+    private void rescan() {
+        for (Path file : new ArrayList<>(byFile.keySet())) {
+            if (Files.exists(file)) {
+                put(file, parse(file));
+            } else {
+                remove(file);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Path, FileIndex> loadPersisted() {
+        Map<Path, FileIndex> persisted = new LinkedHashMap<>();
+        Path indexFile = root.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) return persisted;
+        try {
+            Map<String, Object> json = JSON.toType(Files.readString(indexFile), Json.MAP_TYPE);
+            Map<String, Object> files = (Map<String, Object>) json.get("files");
+            for (Map.Entry<String, Object> fileEntry : files.entrySet()) {
+                Map<String, Object> data = (Map<String, Object>) fileEntry.getValue();
+                Path file = root.resolve(fileEntry.getKey());
+                List<Entry> entries = new ArrayList<>();
+                for (Map<String, Object> getter : (List<Map<String, Object>>) data.get("getters")) {
+                    entries.add(new Entry((String) getter.get("name"), (String) getter.get("className"),
+                        (String) getter.get("locator"), file));
+                }
+                persisted.put(file, new FileIndex(((Number) data.get("size")).longValue(),
+                    ((Number) data.get("lastModified")).longValue(), entries));
+            }
+        } catch (Exception e) {
+            // Only a cache: a corrupt file means a full scan
+            AppLogger.warn("Ignoring unreadable locator index: " + e.getMessage());
+        }
+        return persisted;
+    }
+
+    private void save() {
+        Map<String, Object> files = new LinkedHashMap<>();
+        for (Map.Entry<Path, FileIndex> fileEntry : byFile.entrySet()) {
+            List<Map<String, Object>> getters = new ArrayList<>();
+            for (Entry entry : fileEntry.getValue().entries) {
+                Map<String, Object> getter = new LinkedHashMap<>();
+                getter.put("name", entry.getterName);
+                getter.put("className", entry.className);
+                getter.put("locator", entry.locator);
+                getters.add(getter);
+            }
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("size", fileEntry.getValue().size);
+            data.put("lastModified", fileEntry.getValue().lastModified);
+            data.put("getters", getters);
+            files.put(root.relativize(fileEntry.getKey()).toString().replace('\\', '/'), data);
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("version", 1);
+        json.put("files", files);
+        try {
+            Path indexFile = root.resolve(INDEX_FILE);
+            Files.createDirectories(indexFile.getParent());
+            Files.writeString(indexFile, JSON.toJson(json));
+        } catch (IOException e) {
+            AppLogger.warn("Cannot save locator index: " + e.getMessage());
+        }
+    }
+}
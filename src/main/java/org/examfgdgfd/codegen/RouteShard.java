@@ -0,0 +1,79 @@
+package org.examfgdgfd.codegen;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Names the page class for a page route, so getters are split per page.
+ * "/admin/users" becomes AdminUsersPage in AdminUsersPage.js; "/" becomes HomePage. Numeric and id-like segments collapse to "detail" so
+ * /users/42 and /users/43 share one shard.
+ */
+public class RouteShard {
+    private static final Pattern ID_SEGMENT =
+        Pattern.compile("^(\\d+|[0-9a-fA-F]{8,}|[0-9a-fA-F]{8}-[0-9a-fA-F-]{27,})$");
+    private static final String HOME = "home";
+
+    private final String className;
+
+    private RouteShard(List<String> words) {
+        StringBuilder pascal = new StringBuilder();
+        for (String word : words) {
+            pascal.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        this.className = pascal + "Page";
+    }
+
+    /**
+     * Whether a path segment is a record id (42, a hash, a UUID) rather than part of the route.
+     * Shared with the intercept patterns, so page classes and cy.intercept globs agree on routes.
+     */
+    public static boolean isIdSegment(String segment) {
+        return ID_SEGMENT.matcher(segment).matches();
+    }
+
+    /**
+     * Shard for a page URL. Hash routes (#/admin) count as the path; unparseable URLs map to home.
+     */
+    public static RouteShard of(String url) {
+        String path = "";
+        try {
+            URI uri = URI.create(url == null ? "" : url.trim());
+            path = uri.getPath() == null ? "" : uri.getPath();
+            String fragment = uri.getFragment();
+            if (path.replace("/", "").isEmpty() && fragment != null && fragment.startsWith("/")) {
+                path = fragment;
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a URL, fall through to home
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) continue;
+            if (isIdSegment(segment)) {
+                words.add("detail");
+                continue;
+            }
+            int dot = segment.lastIndexOf('.');
+            if (dot > 0) segment = segment.substring(0, dot);
+            for (String word : segment.split("[^A-Za-z0-9]+")) {
+                if (!word.isEmpty()) words.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        if (words.isEmpty()) words.add(HOME);
+        // Class names cannot start with a digit
+        if (Character.isDigit(words.get(0).charAt(0))) words.add(0, "page");
+        return new RouteShard(words);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPageFileName() {
+        return className + ".js";
+    }
+}
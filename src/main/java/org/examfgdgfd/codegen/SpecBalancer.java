@@ -0,0 +1,345 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.config.AppConfig;
+import org.examfgdgfd.logging.AppLogger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the recorded flows of a project folder into spec files of about equal run time,
+ * one per CI runner. Each step is weighted by the wall-clock gap since the previous capture
+ * of its flow. Whole flows are bin-packed across runners, longest first, because a flow's later
+ * steps depend on the state its earlier steps built up. A flow longer than a runner's share is only
+ * cut where a fresh visit recreates the page: a route change reached without typing or clicking
+ * anything but the link that navigated there. A recorded login (a flow starting with a password
+ * field) becomes a cy.session setup so every shard starts on its own.
+ * Shards go to cypress/balanced, outside Cypress's default specPattern (cypress/e2e/**), so a plain
+ * run keeps using the per-flow specs and never runs a flow twice; each CI runner selects its shard with
+ * {@code npx cypress run --config specPattern=cypress/balanced/flow-N.cy.js}.
+ */
+public class SpecBalancer {
+    private static final String OUTPUT_DIR = "cypress/balanced";
+    private static final String SESSION_ID = "generated-login";
+    private static final Pattern INPUT_STEP = Pattern.compile("\\.(type|clear|check|uncheck|select|selectFile|trigger)\\(");
+    private static final Pattern CLICK_STEP = Pattern.compile("\\.(click|dblclick|rightclick)\\(");
+
+    private final FlowLog flowLog = new FlowLog();
+    private final SpecOptimizer optimizer = new SpecOptimizer();
+
+    /**
+     * A run of consecutive steps of one flow that starts from a fresh visit, with its estimated duration.
+     */
+    static class Chunk {
+        final int order;
+        final List<FlowLog.Step> steps = new ArrayList<>();
+        long weight;
+
+        Chunk(int order) {
+            this.order = order;
+        }
+    }
+
+    /**
+     * One output spec: whole flows or independent pieces of them, and its estimated duration.
+     */
+    public static class Shard {
+        private final int steps;
+        private final int tests;
+        private final long estimatedMs;
+        private final Path file;
+
+        Shard(int steps, int tests, long estimatedMs, Path file) {
+            this.steps = steps;
+            this.tests = tests;
+            this.estimatedMs = estimatedMs;
+            this.file = file;
+        }
+
+        public int getSteps() {
+            return steps;
+        }
+
+        /**
+         * it() blocks in the spec, one per flow or flow piece.
+         */
+        public int getTests() {
+            return tests;
+        }
+
+        public long getEstimatedMs() {
+            return estimatedMs;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * Command a CI runner uses to run only this shard.
+         */
+        public String getRunCommand() {
+            return "npx cypress run --config specPattern=" + OUTPUT_DIR + "/" + file.getFileName();
+        }
+    }
+
+    /**
+     * The shards written and whether they share a login setup.
+     */
+    public static class Result {
+        private final List<Shard> shards;
+        private final int loginSteps;
+
+        Result(List<Shard> shards, int loginSteps) {
+            this.shards = shards;
+            this.loginSteps = loginSteps;
+        }
+
+        public List<Shard> getShards() {
+            return shards;
+        }
+
+        public int getLoginSteps() {
+            return loginSteps;
+        }
+    }
+
+    /**
+     * Replace the balanced specs of a project folder with shards for the given number of runners.
+     *
+     * @param root project folder holding the cypress directory
+     */
+    public Result balance(Path root, int runners) throws IOException {
+        List<FlowLog.Step> recorded = flowLog.read(root);
+        if (recorded.isEmpty()) {
+            throw new IOException("No recorded steps yet, capture a flow first");
+        }
+
+        List<FlowLog.Step> login = loginSteps(recorded);
+        // Steps of each flow in order, flows in order of their first step
+        Map<String, List<FlowLog.Step>> flows = new LinkedHashMap<>();
+        Map<FlowLog.Step, Long> weights = new IdentityHashMap<>();
+        long total = 0;
+        FlowLog.Step previous = null;
+        for (FlowLog.Step step : recorded) {
+            boolean sameFlow = previous != null && sameFlow(previous, step);
+            long gap = sameFlow && step.getCapturedAt() > 0 && previous.getCapturedAt() > 0
+                ? step.getCapturedAt() - previous.getCapturedAt() : AppConfig.FLOW_STEP_DEFAULT_MS;
+            // The page took at least its measured settle time before the step could run
+            gap = Math.max(gap, step.getSettleMs());
+            previous = step;
+            if (isLoginStep(step, login)) continue;
+            long weight = Math.max(AppConfig.FLOW_STEP_MIN_MS, Math.min(AppConfig.FLOW_GAP_CAP_MS, gap));
+            weights.put(step, weight);
+            total += weight;
+            flows.computeIfAbsent(String.valueOf(step.getFlowId()), k -> new ArrayList<>()).add(step);
+        }
+        if (flows.isEmpty()) {
+            throw new IOException("Only login steps were recorded, nothing to shard");
+        }
+
+        int bins = Math.max(1, runners);
+        long share = (total + bins - 1) / bins;
+        List<Chunk> chunks = new ArrayList<>();
+        for (List<FlowLog.Step> flow : flows.values()) {
+            chunks.addAll(chunks(flow, weights, share, chunks.size()));
+        }
+        List<List<Chunk>> packed = pack(chunks, Math.min(bins, chunks.size()));
+
+        Path outputDir = root.resolve(OUTPUT_DIR);
+        clearOutput(outputDir);
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < packed.size(); i++) {
+            List<Chunk> shard = packed.get(i);
+            long estimate = AppConfig.FLOW_SHARD_OVERHEAD_MS;
+            int steps = 0;
+            for (Chunk chunk : shard) {
+                estimate += chunk.weight;
+                steps += chunk.steps.size();
+            }
+            Path file = outputDir.resolve("flow-" + (i + 1) + ".cy.js");
+            Files.writeString(file, render(shard, login, i + 1, packed.size(), estimate));
+            shards.add(new Shard(steps, shard.size(), estimate, file));
+        }
+
+        AppLogger.info("Balanced " + flows.size() + " flow(s) as " + chunks.size() + " test(s) into " + shards.size()
+            + " shard(s)" + (login.isEmpty() ? "" : " with a " + login.size() + "-step login session"));
+        return new Result(shards, login.size());
+    }
+
+    /**
+     * A flow as one chunk, or, when it is longer than a runner's share, cut at safe points into
+     * chunks close to that share. Between safe points the flow always stays together.
+     */
+    static List<Chunk> chunks(List<FlowLog.Step> flow, Map<FlowLog.Step, Long> weights, long share, int order) {
+        List<Chunk> chunks = new ArrayList<>();
+        Chunk current = new Chunk(order);
+        long flowWeight = 0;
+        for (FlowLog.Step step : flow) flowWeight += weights.get(step);
+        boolean cuttable = flowWeight > share;
+
+        // The current chunk has built no state that a visit to the next route could not recreate
+        boolean stateless = true;
+        for (int i = 0; i < flow.size(); i++) {
+            FlowLog.Step step = flow.get(i);
+            boolean routeChange = i > 0 && !flow.get(i - 1).getUrl().equals(step.getUrl());
+            if (cuttable && routeChange && stateless && !current.steps.isEmpty()
+                    && current.weight + weights.get(step) > share) {
+                chunks.add(current);
+                current = new Chunk(order + chunks.size());
+            }
+            if (!stateless || INPUT_STEP.matcher(step.getSpecLine()).find()) {
+                stateless = false;
+            } else if (CLICK_STEP.matcher(step.getSpecLine()).find()) {
+                // Only a click that leaves the route is a plain navigation
+                stateless = i + 1 < flow.size() && !flow.get(i + 1).getUrl().equals(step.getUrl());
+            }
+            current.steps.add(step);
+            current.weight += weights.get(step);
+        }
+        chunks.add(current);
+        return chunks;
+    }
+
+    /**
+     * Longest chunk first onto the least loaded runner; each runner keeps its chunks in recorded order.
+     */
+    static List<List<Chunk>> pack(List<Chunk> chunks, int runners) {
+        List<Chunk> longestFirst = new ArrayList<>(chunks);
+        longestFirst.sort(Comparator.comparingLong((Chunk chunk) -> chunk.weight).reversed()
+            .thenComparingInt(chunk -> chunk.order));
+        List<List<Chunk>> bins = new ArrayList<>();
+        long[] loads = new long[runners];
+        for (int i = 0; i < runners; i++) bins.add(new ArrayList<>());
+        for (Chunk chunk : longestFirst) {
+            int lightest = 0;
+            for (int i = 1; i < runners; i++) {
+                if (loads[i] < loads[lightest]) lightest = i;
+            }
+            bins.get(lightest).add(chunk);
+            loads[lightest] += chunk.weight;
+        }
+        for (List<Chunk> bin : bins) bin.sort(Comparator.comparingInt(chunk -> chunk.order));
+        bins.removeIf(List::isEmpty);
+        return bins;
+    }
+
+    /**
+     * The login of the first flow that types into a password field on its first page:
+     * everything up to the password step and the step that submits it.
+     */
+    private List<FlowLog.Step> loginSteps(List<FlowLog.Step> recorded) {
+        int flowStart = 0;
+        for (int i = 0; i < recorded.size(); i++) {
+            FlowLog.Step step = recorded.get(i);
+            if (i > 0 && !sameFlow(recorded.get(i - 1), step)) flowStart = i;
+            if (!step.getUrl().equals(recorded.get(flowStart).getUrl())) continue;
+            if ("password".equalsIgnoreCase(step.getInputType())) {
+                int end = i;
+                if (i + 1 < recorded.size() && sameFlow(step, recorded.get(i + 1))
+                        && step.getUrl().equals(recorded.get(i + 1).getUrl())) {
+                    end = i + 1;
+                }
+                return new ArrayList<>(recorded.subList(flowStart, end + 1));
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Whether a step repeats the login, which the session setup already does.
+     */
+    private static boolean isLoginStep(FlowLog.Step step, List<FlowLog.Step> login) {
+        for (FlowLog.Step loginStep : login) {
+            if (loginStep.getUrl().equals(step.getUrl()) && loginStep.getSpecLine().equals(step.getSpecLine())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameFlow(FlowLog.Step a, FlowLog.Step b) {
+        return a.getFlowId() != null && a.getFlowId().equals(b.getFlowId());
+    }
+
+    private String render(List<Chunk> chunks, List<FlowLog.Step> login, int index, int total, long estimate) {
+        TreeSet<String> classes = new TreeSet<>();
+        for (Chunk chunk : chunks) {
+            for (FlowLog.Step step : chunk.steps) classes.add(RouteShard.of(step.getUrl()).getClassName());
+        }
+        for (FlowLog.Step step : login) classes.add(RouteShard.of(step.getUrl()).getClassName());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("import { ").append(String.join(", ", classes)).append(" } from '../pages';\n\n");
+        sb.append("// Generated by Ghost Tester - shard ").append(index).append(" of ").append(total)
+            .append(", estimated ").append(estimate).append(" ms\n");
+        sb.append("// Run on its own CI runner: npx cypress run --config specPattern=").append(OUTPUT_DIR)
+            .append("/flow-").append(index).append(".cy.js\n");
+        sb.append("describe('Generated Flow - shard ").append(index).append(" of ").append(total).append("', () => {\n");
+
+        if (!login.isEmpty()) {
+            sb.append("  beforeEach(() => {\n");
+            sb.append("    cy.session('").append(SESSION_ID).append("', () => {\n");
+            sb.append("      const page = new ").append(RouteShard.of(login.get(0).getUrl()).getClassName()).append("();\n");
+            sb.append("      cy.visit('").append(escape(login.get(0).getUrl())).append("');\n");
+            for (String line : optimizer.optimize(lines(login)).getLines()) {
+                sb.append("      ").append(line).append("\n");
+            }
+            sb.append("    });\n");
+            sb.append("  });\n\n");
+        }
+
+        for (int c = 0; c < chunks.size(); c++) {
+            List<FlowLog.Step> steps = chunks.get(c).steps;
+            if (c > 0) sb.append("\n");
+            sb.append("  it('Flow ").append(steps.get(0).getFlowId()).append(" - ").append(steps.size())
+                .append(" step(s)', () => {\n");
+            sb.append("    let page;\n");
+            List<String> body = new ArrayList<>();
+            body.add("cy.visit('" + escape(steps.get(0).getUrl()) + "');");
+            FlowLog.Step previous = null;
+            for (FlowLog.Step step : steps) {
+                // A new route only switches the page class, the flow carries on from where it is
+                if (previous == null || !previous.getUrl().equals(step.getUrl())) {
+                    body.add("page = new " + RouteShard.of(step.getUrl()).getClassName() + "();");
+                }
+                body.addAll(Arrays.asList(step.getSpecLine().split("\n")));
+                previous = step;
+            }
+            for (String line : optimizer.optimize(body).getLines()) {
+                sb.append("    ").append(line).append("\n");
+            }
+            sb.append("  });\n");
+        }
+        sb.append("});\n");
+        return sb.toString();
+    }
+
+    private static List<String> lines(List<FlowLog.Step> steps) {
+        List<String> lines = new ArrayList<>(steps.size());
+        for (FlowLog.Step step : steps) lines.addAll(Arrays.asList(step.getSpecLine().split("\n")));
+        return lines;
+    }
+
+    private static String escape(String url) {
+        return url.replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    private static void clearOutput(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(outputDir, "flow-*.cy.js")) {
+            for (Path file : old) Files.delete(file);
+        }
+    }
+}
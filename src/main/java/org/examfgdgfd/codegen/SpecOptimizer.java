@@ -0,0 +1,269 @@
+package org.examfgdgfd.codegen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Shortens generated spec steps before they are written. Cypress already waits for
+ * existence and actionability, so assertions an action implies are dropped, repeated
+ * assertions on one getter are merged into one chain, default options are removed and
+ * back-to-back cy.visit calls collapse into the last one.
+ * Lines it does not understand pass through untouched.
+ */
+public class SpecOptimizer {
+    private static final Set<String> ASSERTIONS = Set.of("should", "and");
+    // Commands that run Cypress actionability checks (visible, not disabled, not covered)
+    private static final Set<String> ACTIONS = Set.of(
+        "click", "dblclick", "rightclick", "type", "clear", "check", "uncheck", "select", "trigger");
+    // Commands that at least retry until the subject exists
+    private static final Set<String> QUERIES_EXISTENCE = Set.of("scrollIntoView", "invoke", "focus", "blur");
+    private static final Set<String> CHAIN_COMMANDS = Stream.of(ASSERTIONS, ACTIONS, QUERIES_EXISTENCE)
+        .flatMap(Set::stream).collect(Collectors.toUnmodifiableSet());
+    private static final Set<String> ACTIONABILITY_ASSERTIONS = Set.of("'be.visible'", "'be.enabled'", "'not.be.disabled'");
+    private static final String EXISTS = "'exist'";
+    private static final Pattern WAIT_FOR_ANIMATIONS = Pattern.compile("\\s*waitForAnimations\\s*:\\s*true\\s*,?");
+    private static final Pattern FORCE = Pattern.compile("\\bforce\\s*:\\s*true\\b");
+    private static final Pattern VISIT = Pattern.compile("^\\s*cy\\.visit\\(.*\\);?\\s*$");
+
+    /**
+     * Optimized lines and how many commands were removed from them.
+     */
+    public static class Result {
+        private final List<String> lines;
+        private final int removed;
+
+        Result(List<String> lines, int removed) {
+            this.lines = lines;
+            this.removed = removed;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+    }
+
+    private static class Call {
+        final String name;
+        String args;
+
+        Call(String name, String args) {
+            this.name = name;
+            this.args = args;
+        }
+    }
+
+    private static class Step {
+        final String subject;
+        final List<Call> calls;
+        final String comment;
+
+        Step(String subject, List<Call> calls, String comment) {
+            this.subject = subject;
+            this.calls = calls;
+            this.comment = comment;
+        }
+
+        boolean assertionsOnly() {
+            if (calls.isEmpty()) return false;
+            for (Call call : calls) {
+                if (!ASSERTIONS.contains(call.name)) return false;
+            }
+            return comment == null;
+        }
+
+        String render() {
+            StringBuilder sb = new StringBuilder(subject);
+            for (Call call : calls) {
+                sb.append('.').append(call.name).append('(').append(call.args).append(')');
+            }
+            sb.append(';');
+            if (comment != null) sb.append(' ').append(comment);
+            return sb.toString();
+        }
+    }
+
+    public Result optimize(List<String> lines) {
+        int removed = 0;
+        List<Object> out = new ArrayList<>(lines.size());
+
+        for (String line : lines) {
+            Step step = parse(line);
+            if (step == null) {
+                // cy.visit right after cy.visit: only the last navigation matters
+                if (VISIT.matcher(line).matches() && !out.isEmpty() && out.get(out.size() - 1) instanceof String
+                        && VISIT.matcher((String) out.get(out.size() - 1)).matches()) {
+                    out.remove(out.size() - 1);
+                    removed++;
+                }
+                out.add(line);
+                continue;
+            }
+
+            removed += simplify(step);
+
+            // Assertions on a getter followed by more commands on it become one chain, saving a query
+            Object previous = out.isEmpty() ? null : out.get(out.size() - 1);
+            if (previous instanceof Step && ((Step) previous).assertionsOnly()
+                    && ((Step) previous).subject.equals(step.subject)) {
+                List<Call> merged = new ArrayList<>(((Step) previous).calls);
+                merged.addAll(step.calls);
+                step = new Step(step.subject, merged, step.comment);
+                removed += 1 + simplify(step);
+                out.remove(out.size() - 1);
+            }
+            out.add(step);
+        }
+
+        List<String> result = new ArrayList<>(out.size());
+        for (Object entry : out) {
+            result.add(entry instanceof Step ? ((Step) entry).render() : (String) entry);
+        }
+        return new Result(result, removed);
+    }
+
+    /**
+     * Clean one chain in place and return how many calls were dropped.
+     */
+    private int simplify(Step step) {
+        int removed = 0;
+        List<Call> calls = step.calls;
+
+        for (Call call : calls) {
+            if (ACTIONS.contains(call.name)) call.args = cleanOptions(call.args);
+        }
+
+        // Assertions directly before a command that already implies them
+        for (int i = calls.size() - 1; i >= 0; i--) {
+            Call call = calls.get(i);
+            if (!ASSERTIONS.contains(call.name)) continue;
+            Call next = nextCommand(calls, i);
+            if (next != null && isImplied(call.args.trim(), next)) {
+                calls.remove(i);
+                removed++;
+            }
+        }
+
+        // The same assertion twice in a row
+        for (int i = calls.size() - 1; i > 0; i--) {
+            Call call = calls.get(i);
+            Call before = calls.get(i - 1);
+            if (ASSERTIONS.contains(call.name) && ASSERTIONS.contains(before.name)
+                    && call.args.trim().equals(before.args.trim())) {
+                calls.remove(i);
+                removed++;
+            }
+        }
+
+        // .should(a).should(b) reads as .should(a).and(b)
+        for (int i = 1; i < calls.size(); i++) {
+            if ("should".equals(calls.get(i).name) && ASSERTIONS.contains(calls.get(i - 1).name)) {
+                calls.set(i, new Call("and", calls.get(i).args));
+            }
+        }
+        if (!calls.isEmpty() && "and".equals(calls.get(0).name)) {
+            calls.set(0, new Call("should", calls.get(0).args));
+        }
+        return removed;
+    }
+
+    private static Call nextCommand(List<Call> calls, int from) {
+        for (int i = from + 1; i < calls.size(); i++) {
+            if (!ASSERTIONS.contains(calls.get(i).name)) return calls.get(i);
+        }
+        return null;
+    }
+
+    private static boolean isImplied(String assertion, Call command) {
+        if (EXISTS.equals(assertion)) return true;
+        // force: true skips actionability, so visibility is no longer implied
+        return ACTIONABILITY_ASSERTIONS.contains(assertion)
+            && ACTIONS.contains(command.name) && !FORCE.matcher(command.args).find();
+    }
+
+    /**
+     * Drop default options and the empty pieces they leave behind.
+     */
+    private static String cleanOptions(String args) {
+        String cleaned = WAIT_FOR_ANIMATIONS.matcher(args).replaceAll("");
+        cleaned = cleaned.replaceAll("\\{\\s*,?\\s*}", "").replaceAll(",\\s*}", " }").trim();
+        cleaned = cleaned.replaceAll(",\\s*$", "").trim();
+        return cleaned;
+    }
+
+    /**
+     * Split "subject.cmd(args).cmd(args); // comment" into its chain, or null when it is not a chain step.
+     */
+    private static Step parse(String line) {
+        String text = line.trim();
+        String comment = null;
+
+        List<String> segments = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        int end = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipString(text, i, c);
+                continue;
+            }
+            if (c == '(' || c == '[' || c == '{') depth++;
+            else if (c == ')' || c == ']' || c == '}') depth--;
+            else if (depth == 0 && c == '.') {
+                segments.add(text.substring(start, i));
+                start = i + 1;
+            } else if (depth == 0 && c == ';') {
+                segments.add(text.substring(start, i));
+                end = i;
+                break;
+            }
+        }
+        if (end < 0 || depth != 0) return null;
+        String rest = text.substring(end + 1).trim();
+        if (!rest.isEmpty()) {
+            if (!rest.startsWith("//")) return null;
+            comment = rest;
+        }
+
+        StringBuilder subject = new StringBuilder();
+        List<Call> calls = new ArrayList<>();
+        for (String segment : segments) {
+            int paren = segment.indexOf('(');
+            String name = paren < 0 ? segment : segment.substring(0, paren);
+            boolean isCall = paren > 0 && segment.endsWith(")");
+            if (isCall && CHAIN_COMMANDS.contains(name) && subject.length() > 0) {
+                calls.add(new Call(name, segment.substring(paren + 1, segment.length() - 1)));
+            } else if (calls.isEmpty()) {
+                if (subject.length() > 0) subject.append('.');
+                subject.append(segment);
+            } else {
+                // Something we do not model after the chain started
+                return null;
+            }
+        }
+        if (subject.length() == 0 || subject.toString().startsWith("cy.visit")) return null;
+        return new Step(subject.toString(), calls, comment);
+    }
+
+    private static int skipString(String text, int start, char quote) {
+        int i = start + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) return i;
+            i++;
+        }
+        return text.length();
+    }
+}
@@ -0,0 +1,257 @@
+package org.examfgdgfd.codegen;
+
+import org.examfgdgfd.FileManager;
+import org.examfgdgfd.config.AppConfig;
+import org.examfgdgfd.logging.AppLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Moves file writes off the capturing thread. The writer thread journals each burst of captures
+ * with one fsync, then merges it so it becomes one write per generated file. A failed batch is retried after a
+ * pause; each stage of it is recorded in the journal so a retry or replay never writes it twice.
+ */
+public class WriteBehindWriter {
+    private static final String STAGE_PAGES = "pages";
+    private static final String STAGE_SPEC = "spec";
+    private static final String STAGE_FLOW = "flow";
+    private static final String STAGE_FINGERPRINTS = "fingerprints";
+    // Queued by shutdown: everything submitted before it is flushed, then the worker exits
+    private static final CaptureRecord STOP = new CaptureRecord(0, null, null, null, null, null, null, null, 0, null, 0, null);
+
+    private final FileManager fileManager;
+    private final CaptureJournal journal;
+    private final BlockingQueue<CaptureRecord> queue = new LinkedBlockingQueue<>();
+    private final SpecOptimizer optimizer = new SpecOptimizer();
+    private final FlowLog flowLog = new FlowLog();
+    private final AtomicInteger removedCommands = new AtomicInteger();
+    private final Thread worker;
+    private volatile Consumer<String> errorListener = message -> { };
+    private volatile boolean running = true;
+
+    public WriteBehindWriter(FileManager fileManager, CaptureJournal journal) {
+        this.fileManager = fileManager;
+        this.journal = journal;
+        this.worker = new Thread(this::runLoop, "write-behind");
+        this.worker.setDaemon(true);
+    }
+
+    public void setErrorListener(Consumer<String> errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    /**
+     * Open the journal, write any captures a previous run left behind, then start accepting new ones.
+     *
+     * @return number of captures replayed from the journal
+     */
+    public int start() {
+        int replayed = 0;
+        try {
+            List<CaptureRecord> pending = journal.open();
+            if (!pending.isEmpty()) {
+                AppLogger.info("Replaying " + pending.size() + " journaled capture(s)");
+                writeAndCommit(pending);
+                replayed = pending.size();
+            }
+        } catch (Exception e) {
+            AppLogger.error("Capture journal replay failed", e);
+            errorListener.accept("Journal replay failed: " + e.getMessage());
+        }
+        worker.start();
+        return replayed;
+    }
+
+    /**
+     * Commands the spec optimizer has removed since start.
+     */
+    public int getRemovedCommands() {
+        return removedCommands.get();
+    }
+
+    /**
+     * Queue a capture for the writer thread, which journals it with the rest of its batch.
+     * Never waits on disk, so it is safe to call from the event thread, also before start().
+     */
+    public void submit(CaptureRecord record) {
+        if (!running) {
+            AppLogger.warn("Capture submitted after shutdown, not written: " + record.getVarName());
+            return;
+        }
+        queue.offer(record);
+    }
+
+    /**
+     * Flush what is queued and stop, waiting at most the given time. The worker is not interrupted,
+     * an interrupt inside file I/O would close the journal channel and abort the flush.
+     */
+    public void shutdown(long timeoutMs) {
+        running = false;
+        queue.offer(STOP);
+        try {
+            worker.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private void runLoop() {
+        // Journaled records of a failed batch, retried first so capture order is kept
+        List<CaptureRecord> failed = new ArrayList<>();
+        boolean stopping = false;
+        while (true) {
+            List<CaptureRecord> taken = new ArrayList<>();
+            if (stopping) {
+                queue.drainTo(taken, AppConfig.WRITE_BEHIND_MAX_BATCH);
+                taken.remove(STOP);
+            } else {
+                stopping = take(taken, !failed.isEmpty());
+            }
+
+            List<CaptureRecord> batch = new ArrayList<>(failed);
+            failed.clear();
+            batch.addAll(journal(taken));
+            if (batch.isEmpty()) {
+                if (stopping) break;
+                continue;
+            }
+
+            try {
+                writeAndCommit(batch);
+            } catch (Exception e) {
+                AppLogger.error("Write-behind batch failed", e);
+                errorListener.accept("Write failed for " + batch.size() + " capture(s), "
+                    + (stopping ? "replayed on next start: " : "retrying: ") + e.getMessage());
+                // Whatever is left at exit stays uncommitted in the journal and is replayed on next start
+                if (!stopping) failed.addAll(batch);
+            }
+        }
+    }
+
+    /**
+     * Wait for the next batch: a burst of clicks gets a moment to arrive so it lands in one write.
+     * While a failed batch waits for its retry, waits at most the retry pause.
+     *
+     * @return true once shutdown was signalled
+     */
+    private boolean take(List<CaptureRecord> taken, boolean retrying) {
+        try {
+            CaptureRecord next = retrying
+                ? queue.poll(AppConfig.WRITE_BEHIND_RETRY_MS, TimeUnit.MILLISECONDS)
+                : queue.take();
+            while (next != null) {
+                if (next == STOP) return true;
+                taken.add(next);
+                if (taken.size() >= AppConfig.WRITE_BEHIND_MAX_BATCH) break;
+                next = queue.poll(AppConfig.WRITE_BEHIND_LINGER_MS, TimeUnit.MILLISECONDS);
+            }
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Journal a batch with one fsync, numbering its records. A batch the journal cannot take is
+     * still written in this run, it only would not survive a crash.
+     */
+    private List<CaptureRecord> journal(List<CaptureRecord> records) {
+        if (records.isEmpty()) return records;
+        try {
+            return journal.append(records);
+        } catch (IOException e) {
+            AppLogger.error("Capture journal append failed", e);
+            errorListener.accept("Journal write failed, " + records.size() + " capture(s) not crash-safe: " + e.getMessage());
+            return journal.number(records);
+        }
+    }
+
+    /**
+     * Per project folder and page route, in capture order: getters, flow log and fingerprints;
+     * then per recording flow: spec steps. Each stage is journaled once written, then a single commit.
+     * Spec steps pass through the optimizer on the way.
+     */
+    private void writeAndCommit(List<CaptureRecord> records) throws Exception {
+        Map<String, List<CaptureRecord>> byTarget = new LinkedHashMap<>();
+        for (CaptureRecord record : records) {
+            String target = record.getProjectPath() + "\n" + record.getFolder() + "\n" + RouteShard.of(record.getUrl()).getClassName();
+            byTarget.computeIfAbsent(target, k -> new ArrayList<>()).add(record);
+        }
+
+        for (List<CaptureRecord> group : byTarget.values()) {
+            CaptureRecord first = group.get(0);
+            Path root = Paths.get(first.getProjectPath(), first.getFolder());
+
+            List<CaptureRecord> todo = journal.notApplied(group, STAGE_PAGES);
+            List<String> pomLines = new ArrayList<>();
+            for (CaptureRecord record : todo) {
+                if (record.getPomLine() != null) pomLines.add(record.getPomLine());
+            }
+            if (!pomLines.isEmpty()) fileManager.appendGetters(first.getProjectPath(), first.getFolder(), first.getUrl(), pomLines);
+            journal.applied(STAGE_PAGES, todo);
+
+            todo = journal.notApplied(group, STAGE_FLOW);
+            flowLog.append(root, todo);
+            journal.applied(STAGE_FLOW, todo);
+
+            todo = journal.notApplied(group, STAGE_FINGERPRINTS);
+            fileManager.getFingerprints().append(root, RouteShard.of(first.getUrl()).getClassName(), todo);
+            journal.applied(STAGE_FINGERPRINTS, todo);
+        }
+
+        // Steps go to the spec of their flow, in capture order across routes
+        Map<String, List<CaptureRecord>> byFlow = new LinkedHashMap<>();
+        for (CaptureRecord record : journal.notApplied(records, STAGE_SPEC)) {
+            String flow = record.getProjectPath() + "\n" + record.getFolder() + "\n" + record.getFlowId();
+            byFlow.computeIfAbsent(flow, k -> new ArrayList<>()).add(record);
+        }
+        for (List<CaptureRecord> flow : byFlow.values()) {
+            CaptureRecord first = flow.get(0);
+            fileManager.appendFlowSteps(first.getProjectPath(), first.getFolder(), first.getFlowId(), stepRuns(flow));
+            journal.applied(STAGE_SPEC, flow);
+        }
+        journal.commit(records);
+        AppLogger.debug("Wrote " + records.size() + " capture(s) in " + byTarget.size() + " page batch(es) and "
+            + byFlow.size() + " flow(s)");
+    }
+
+    /**
+     * A flow's steps split into runs of consecutive steps on the same route, each run optimized on its own.
+     */
+    private List<FileManager.StepRun> stepRuns(List<CaptureRecord> flow) {
+        List<FileManager.StepRun> runs = new ArrayList<>();
+        int start = 0;
+        while (start < flow.size()) {
+            String className = RouteShard.of(flow.get(start).getUrl()).getClassName();
+            int end = start;
+            List<String> specLines = new ArrayList<>();
+            while (end < flow.size() && RouteShard.of(flow.get(end).getUrl()).getClassName().equals(className)) {
+                CaptureRecord record = flow.get(end++);
+                if (record.getSpecLine() != null && !record.getSpecLine().isEmpty()) {
+                    specLines.addAll(Arrays.asList(record.getSpecLine().split("\n")));
+                }
+            }
+            SpecOptimizer.Result optimized = optimizer.optimize(specLines);
+            if (optimized.getRemoved() > 0) {
+                removedCommands.addAndGet(optimized.getRemoved());
+                AppLogger.debug("Spec optimizer removed " + optimized.getRemoved() + " command(s)");
+            }
+            if (!optimized.getLines().isEmpty()) runs.add(new FileManager.StepRun(flow.get(start).getUrl(), optimized.getLines()));
+            start = end;
+        }
+        return runs;
+    }
+}
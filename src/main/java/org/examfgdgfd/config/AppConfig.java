@@ -15,12 +15,60 @@ public class AppConfig {
 
     // Browser Configuration
     public static final int BROWSER_LAUNCH_TIMEOUT = 30;  // seconds
-    public static final int BROWSER_READY_CHECK_INTERVAL = 200;  // milliseconds
+    public static final int DRIVER_PROBE_TIMEOUT = 2000;  // milliseconds a status probe may wait behind other commands
+    public static final int SESSION_POOL_SIZE = 1;  // pre-started browsers kept ready for LAUNCH
     public static final String DEFAULT_URL = "https://dev.zeustra.com";
     public static final String DEFAULT_FOLDER = "My_Automation_Folder";
 
     // SPY Configuration
     public static final int SPY_ELEMENT_CHECK_INTERVAL = 300;  // milliseconds
+    public static final int CAPTURE_BUFFER_SIZE = 50;  // pending clicks kept in the page between polls
+
+    // Capture fingerprint limits - keep per-click page cost bounded on huge nodes
+    public static final int CAPTURE_TEXT_LIMIT = 100;  // characters
+    public static final int CAPTURE_TEXT_NODE_LIMIT = 20;  // text nodes walked per element
+    public static final int CAPTURE_ATTRIBUTE_LIMIT = 15;
+    public static final int CAPTURE_ATTRIBUTE_VALUE_LIMIT = 80;  // characters
+    public static final int CAPTURE_ANCESTOR_LIMIT = 5;
+    public static final int HOVER_PRECOMPUTE_DEBOUNCE_MS = 80;  // pointer rest before locators are scored ahead of a click
+    public static final int HOVER_SCORE_LIMIT = 4;  // css candidates scored per hover, text ones wait for the click
+    public static final int HOVER_SCORE_BUDGET_MS = 8;  // page time per hover for selector and scores, the rest is left to the click
+
+    // Network Wait Configuration
+    public static final int NETWORK_LINK_WINDOW_MS = 1000;  // requests starting this soon after a click belong to it
+    public static final int NETWORK_RESPONSE_WAIT_MS = 5000;  // how long to wait for linked requests to finish
+    public static final int NETWORK_MAX_WAITS_PER_STEP = 3;
+
+    // DOM Settle Configuration - measured after each capture, sizes the next step's timeout
+    public static final int SETTLE_QUIET_MS = 300;  // no mutations for this long means the page has settled
+    public static final int SETTLE_MAX_MS = 20000;  // stop measuring a page that never goes quiet
+    public static final int CYPRESS_DEFAULT_TIMEOUT_MS = 4000;  // defaultCommandTimeout, steps within it need no option
+    public static final int SETTLE_TIMEOUT_HEADROOM_PERCENT = 150;
+
+    // Write-behind Configuration
+    public static final int WRITE_BEHIND_LINGER_MS = 50;  // wait for more captures of a burst before writing
+    public static final int WRITE_BEHIND_MAX_BATCH = 200;
+    public static final int WRITE_BEHIND_RETRY_MS = 2000;  // pause before a failed batch is written again
+    public static final int WRITE_BEHIND_SHUTDOWN_TIMEOUT = 5000;  // milliseconds to flush on exit
+
+    // Spec Balancing Configuration - step weights come from the recorded gap between captures
+    public static final int FLOW_STEP_DEFAULT_MS = 1000;  // first step of a flow, or no timing recorded
+    public static final int FLOW_STEP_MIN_MS = 200;
+    public static final int FLOW_GAP_CAP_MS = 15000;  // longer gaps are think time, not page time
+    public static final int FLOW_SHARD_OVERHEAD_MS = 2000;  // spec start-up, session restore and first visit
+    public static final int DEFAULT_CI_RUNNERS = 4;
+
+    // Harvest Configuration
+    public static final int HARVEST_MAX_ELEMENTS = 2000;
+
+    // Locator Repair Configuration - broken getters are matched to page elements by recorded fingerprint
+    public static final double REPAIR_MIN_SCORE = 0.5;  // share of the fingerprint's weighted tokens the match must keep
+    public static final double REPAIR_MIN_MARGIN = 0.05;  // lead over the runner-up, closer is ambiguous
+    public static final int REPAIR_TEXT_WORDS = 8;  // text words of a fingerprint used for matching
+
+    // Console Configuration
+    public static final int CONSOLE_MAX_LINES = 5000;  // oldest lines are dropped past this
+    public static final int CONSOLE_FLUSH_MS = 16;  // appends are merged into one update per frame
 
     // Colors (UI Theme)
     public static final java.awt.Color COLOR_PRIMARY = new java.awt.Color(99, 102, 241);
@@ -0,0 +1,270 @@
+package org.examfgdgfd.core;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.examfgdgfd.logging.AppLogger;
+import org.examfgdgfd.util.PreferenceManager;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool of pre-started Chrome sessions so LAUNCH does not pay for a cold browser start.
+ * The chromedriver binary is resolved once and its path cached in preferences,
+ * so later runs start without touching the network.
+ */
+public class BrowserSessionPool {
+    private static final String DRIVER_PATH_KEY = "chromedriver_path";
+    private static final String CHROME_DRIVER_PROPERTY = "webdriver.chrome.driver";
+
+    private final int size;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "session-pool-warmer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean warming = new AtomicBoolean(false);
+    private volatile boolean shutdown = false;
+
+    public BrowserSessionPool(int size) {
+        this.size = Math.max(0, size);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "session-pool-shutdown"));
+    }
+
+    /**
+     * Start browsers in the background until the pool is full.
+     */
+    public void warmUp() {
+        if (shutdown || idle.size() >= size || !warming.compareAndSet(false, true)) return;
+        warmer.submit(() -> {
+            try {
+                while (!shutdown && idle.size() < size) {
+                    idle.offerLast(startBrowser());
+                    AppLogger.info("Warm browser session ready (" + idle.size() + "/" + size + ")");
+                }
+            } catch (Exception e) {
+                AppLogger.warn("Could not pre-start browser session: " + e.getMessage());
+            } finally {
+                warming.set(false);
+            }
+        });
+    }
+
+    /**
+     * Hand out a warm session when one is ready, otherwise start one now.
+     */
+    public WebDriver acquire(long warmWaitSeconds) {
+        WebDriver driver;
+        while ((driver = nextIdle(warmWaitSeconds)) != null) {
+            if (isAlive(driver)) {
+                warmUp();
+                return driver;
+            }
+            quietQuit(driver);
+        }
+
+        driver = startBrowser();
+        warmUp();
+        return driver;
+    }
+
+    private WebDriver nextIdle(long warmWaitSeconds) {
+        WebDriver driver = idle.pollFirst();
+        if (driver != null || !warming.get()) return driver;
+        // A warm start is already under way, waiting for it beats a second cold start
+        try {
+            return idle.pollFirst(warmWaitSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Reset a session and keep it for the next launch instead of quitting it.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+        if (shutdown || idle.size() >= size || !reset(driver)) {
+            quietQuit(driver);
+            return;
+        }
+        idle.offerFirst(driver);
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        warmer.shutdownNow();
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            quietQuit(driver);
+        }
+    }
+
+    /**
+     * Resolve the chromedriver binary once per machine and reuse the cached path afterwards.
+     */
+    public static synchronized void resolveDriverBinary() {
+        if (System.getProperty(CHROME_DRIVER_PROPERTY) != null) return;
+
+        String cached = PreferenceManager.get(DRIVER_PATH_KEY);
+        if (!cached.isEmpty() && new File(cached).canExecute()) {
+            System.setProperty(CHROME_DRIVER_PROPERTY, cached);
+            return;
+        }
+
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        manager.setup();
+        String resolved = manager.getDownloadedDriverPath();
+        if (resolved != null && !resolved.isEmpty()) {
+            PreferenceManager.set(DRIVER_PATH_KEY, resolved);
+            AppLogger.info("Resolved chromedriver: " + resolved);
+        }
+    }
+
+    private static synchronized void forgetDriverBinary() {
+        System.clearProperty(CHROME_DRIVER_PROPERTY);
+        PreferenceManager.set(DRIVER_PATH_KEY, "");
+    }
+
+    private WebDriver startBrowser() {
+        resolveDriverBinary();
+        try {
+            return newChromeDriver();
+        } catch (SessionNotCreatedException e) {
+            // Cached driver no longer matches the installed Chrome, resolve again once
+            AppLogger.warn("Cached chromedriver rejected, resolving again: " + e.getMessage());
+            forgetDriverBinary();
+            resolveDriverBinary();
+            return newChromeDriver();
+        }
+    }
+
+    private WebDriver newChromeDriver() {
+        // Optimize Chrome options for faster loading
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-plugins");
+        options.addArguments("--disable-sync");
+
+        WebDriver driver = new ChromeDriver(options);
+        driver.manage().window().maximize();
+
+        // Set faster timeout
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        return driver;
+    }
+
+    /**
+     * Replace every tab with one blank tab and clear cookies and storage of every origin the session
+     * visited. Page JS can only clear the origin it runs on, so storage is cleared over DevTools for
+     * each origin found in the tabs' history and frames; the fresh tab drops sessionStorage with the old ones.
+     */
+    private boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            Set<String> origins = new LinkedHashSet<>();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                if (driver instanceof HasCdp) origins.addAll(visitedOrigins((HasCdp) driver));
+            }
+
+            driver.switchTo().newWindow(WindowType.TAB);
+            String fresh = driver.getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+
+            if (driver instanceof HasCdp) {
+                HasCdp cdp = (HasCdp) driver;
+                for (String origin : origins) {
+                    cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+                }
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+            driver.manage().deleteAllCookies();
+            return true;
+        } catch (Exception e) {
+            AppLogger.warn("Session reset failed, discarding it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Origins in the current tab's navigation history and frame tree.
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+        if (entries instanceof List) {
+            for (Object entry : (List<Object>) entries) {
+                if (entry instanceof Map) addOrigin(origins, ((Map<String, Object>) entry).get("url"));
+            }
+        }
+        Object tree = cdp.executeCdpCommand("Page.getFrameTree", Map.of()).get("frameTree");
+        Deque<Object> frames = new ArrayDeque<>();
+        if (tree != null) frames.push(tree);
+        while (!frames.isEmpty()) {
+            Object node = frames.pop();
+            if (!(node instanceof Map)) continue;
+            Map<String, Object> frameNode = (Map<String, Object>) node;
+            if (frameNode.get("frame") instanceof Map) addOrigin(origins, ((Map<String, Object>) frameNode.get("frame")).get("url"));
+            if (frameNode.get("childFrames") instanceof List) frames.addAll((List<Object>) frameNode.get("childFrames"));
+        }
+        return origins;
+    }
+
+    private static void addOrigin(Set<String> origins, Object url) {
+        if (url == null) return;
+        try {
+            URI uri = new URI(url.toString());
+            String scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) return;
+            origins.add(scheme + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+        } catch (URISyntaxException e) {
+            AppLogger.debug("Skipping unparsable url " + url);
+        }
+    }
+
+    private boolean isAlive(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void quietQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            AppLogger.debug("Driver quit: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.examfgdgfd.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Captures drained from the in-page queue in one round trip.
+ * Dropped counts clicks that were evicted because the queue overflowed since the last drain.
+ */
+public class CaptureBatch {
+    public static final CaptureBatch EMPTY = new CaptureBatch(Collections.emptyList(), 0);
+
+    private final List<Map<String, Object>> captures;
+    private final long dropped;
+
+    public CaptureBatch(List<Map<String, Object>> captures, long dropped) {
+        this.captures = captures;
+        this.dropped = dropped;
+    }
+
+    public List<Map<String, Object>> getCaptures() {
+        return captures;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public boolean isEmpty() {
+        return captures.isEmpty() && dropped == 0;
+    }
+}
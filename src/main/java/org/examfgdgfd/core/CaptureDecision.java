@@ -0,0 +1,108 @@
+package org.examfgdgfd.core;
+
+/**
+ * How one capture becomes a spec step: the chosen locator, the action and its options.
+ */
+public class CaptureDecision {
+    public static final String[] WAITS = {"None", "be.visible", "exist", "be.enabled"};
+    public static final String DEFAULT_WAIT = "be.visible";
+
+    /**
+     * Actions a capture can turn into.
+     */
+    public enum Action {
+        CLICK("[CLICK]", "Click", "Simulate a mouse click on the element"),
+        TYPE("[TYPE]", "Type", "Enter text into an input field"),
+        HOVER("[HOVER]", "Hover", "Hover over the element"),
+        SCROLL("[SCROLL]", "ScrollIntoView", "Scroll element into view"),
+        ASSERT_VISIBLE("[ASSERT]", "Assert Visible", "Assert that element is visible"),
+        CHECK_TOOLTIP("[TOOLTIP]", "Check Tooltip", "Assert element tooltip text"),
+        REMOVE("[REMOVE]", "Remove from DOM", "Remove element from DOM to clear the way"),
+        WAIT("[WAIT]", "Wait", "Wait for element to be ready (no action)"),
+        WAIT_AND_CLICK("[WAIT+CLICK]", "Wait & Click", "Wait for element then click");
+
+        private final String icon;
+        private final String label;
+        private final String description;
+
+        Action(String icon, String label, String description) {
+            this.icon = icon;
+            this.label = label;
+            this.description = description;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Type and Check Tooltip need a text value.
+         */
+        public boolean needsValue() {
+            return this == TYPE || this == CHECK_TOOLTIP;
+        }
+
+        /**
+         * Action by its label, ignoring case, or null.
+         */
+        public static Action fromLabel(String label) {
+            for (Action action : values()) {
+                if (action.label.equalsIgnoreCase(label.trim())) return action;
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return icon + " " + label;
+        }
+    }
+
+    private final LocatorCandidate locator;
+    private final Action action;
+    private final String wait;
+    private final boolean force;
+    private final boolean multiple;
+    private final String value;
+
+    public CaptureDecision(LocatorCandidate locator, Action action, String wait,
+                           boolean force, boolean multiple, String value) {
+        this.locator = locator;
+        this.action = action;
+        this.wait = wait;
+        this.force = force;
+        this.multiple = multiple;
+        this.value = value;
+    }
+
+    public LocatorCandidate getLocator() {
+        return locator;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public String getWait() {
+        return wait;
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    /**
+     * Text to type or the expected tooltip, null for other actions.
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,222 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.logging.AppLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rules that resolve a capture without asking: the element's tag, type and role pick the action,
+ * wait, options and locator. First matching rule wins; a capture no rule can resolve goes to the queue.
+ *
+ * <p>One rule per line in ~/.ghosttester/profiles.txt, columns separated by '|':
+ * <pre>
+ * # match                  | action | wait       | options | locator
+ * button                   | Click  | be.visible | -       | best
+ * input[type=checkbox]     | Click  | be.visible | force   | ID selector
+ * *[role=tab]              | Click  | None
+ * </pre>
+ * The match is a tag or '*' with optional [type=...] and [role=...]. Options are '-', 'force',
+ * 'multiple' or both. The locator is 'best' or a candidate label; either must be unique on the element.
+ */
+public class CaptureProfiles {
+    public static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".ghosttester", "profiles.txt");
+    private static final Pattern MATCH = Pattern.compile("^([\\w*-]+)((?:\\[(?:type|role)=[^\\]]+\\])*)$");
+    private static final Pattern CONDITION = Pattern.compile("\\[(type|role)=([^\\]]+)\\]");
+    private static final String BEST = "best";
+
+    private static final List<String> BUILT_IN = List.of(
+        "button | Click | be.visible",
+        "a | Click | be.visible",
+        "input[type=submit] | Click | be.visible",
+        "input[type=button] | Click | be.visible",
+        "input[type=checkbox] | Click | be.visible",
+        "input[type=radio] | Click | be.visible",
+        "input | Type | be.visible",
+        "textarea | Type | be.visible",
+        "*[role=button] | Click | be.visible",
+        "*[role=link] | Click | be.visible",
+        "*[role=tab] | Click | be.visible",
+        "*[role=menuitem] | Click | be.visible"
+    );
+
+    /**
+     * One rule and the decision it makes.
+     */
+    public static class Rule {
+        private final String source;
+        private final String tag;
+        private final String type;
+        private final String role;
+        private final CaptureDecision.Action action;
+        private final String wait;
+        private final boolean force;
+        private final boolean multiple;
+        private final String locator;
+
+        Rule(String source, String tag, String type, String role, CaptureDecision.Action action, String wait,
+             boolean force, boolean multiple, String locator) {
+            this.source = source;
+            this.tag = tag;
+            this.type = type;
+            this.role = role;
+            this.action = action;
+            this.wait = wait;
+            this.force = force;
+            this.multiple = multiple;
+            this.locator = locator;
+        }
+
+        boolean matches(Map<String, Object> data) {
+            return ("*".equals(tag) || tag.equalsIgnoreCase(string(data.get("tag"))))
+                && (type == null || type.equalsIgnoreCase(string(data.get("type"))))
+                && (role == null || role.equalsIgnoreCase(string(data.get("role"))));
+        }
+
+        /**
+         * The match column, used to report which rule fired.
+         */
+        public String getSource() {
+            return source;
+        }
+    }
+
+    private final List<Rule> rules;
+
+    CaptureProfiles(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Rules from the profile file, or the built-in ones when there is no file.
+     */
+    public static CaptureProfiles load() {
+        if (Files.exists(DEFAULT_FILE)) {
+            try {
+                return parse(Files.readAllLines(DEFAULT_FILE, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                AppLogger.warn("Could not read capture profiles, using built-in rules: " + e.getMessage());
+            }
+        }
+        return parse(BUILT_IN);
+    }
+
+    static CaptureProfiles parse(List<String> lines) {
+        List<Rule> rules = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            try {
+                rules.add(parseRule(trimmed));
+            } catch (IllegalArgumentException e) {
+                AppLogger.warn("Skipping capture profile '" + trimmed + "': " + e.getMessage());
+            }
+        }
+        return new CaptureProfiles(rules);
+    }
+
+    private static Rule parseRule(String line) {
+        String[] columns = line.split("\\|");
+        if (columns.length < 2) throw new IllegalArgumentException("expected match | action");
+
+        String match = columns[0].trim();
+        Matcher matcher = MATCH.matcher(match);
+        if (!matcher.matches()) throw new IllegalArgumentException("bad match '" + match + "'");
+        String type = null;
+        String role = null;
+        Matcher condition = CONDITION.matcher(matcher.group(2));
+        while (condition.find()) {
+            if ("type".equals(condition.group(1))) {
+                type = condition.group(2).trim();
+            } else {
+                role = condition.group(2).trim();
+            }
+        }
+
+        CaptureDecision.Action action = CaptureDecision.Action.fromLabel(columns[1]);
+        if (action == null) throw new IllegalArgumentException("unknown action '" + columns[1].trim() + "'");
+
+        String wait = column(columns, 2, CaptureDecision.DEFAULT_WAIT);
+        if (!Arrays.asList(CaptureDecision.WAITS).contains(wait)) {
+            throw new IllegalArgumentException("unknown wait '" + wait + "'");
+        }
+        String options = column(columns, 3, "-");
+        String locator = column(columns, 4, BEST);
+        return new Rule(match, matcher.group(1), type, role, action, wait,
+            options.contains("force"), options.contains("multiple"), locator);
+    }
+
+    /**
+     * The decision of the first rule matching the capture, or null when none matches or the matching
+     * rule cannot decide: its locator is not unique on the element, or a Type capture has no value yet.
+     */
+    public Match decide(Map<String, Object> data, List<LocatorCandidate> ranked) {
+        for (Rule rule : rules) {
+            if (!rule.matches(data)) continue;
+
+            LocatorCandidate locator = pickLocator(rule, ranked);
+            if (locator == null) return null;
+            String value = null;
+            if (rule.action.needsValue()) {
+                // Only what the field held at the click; an empty field still needs the user's text
+                value = string(data.get("value"));
+                if (value.isEmpty()) return null;
+            }
+            return new Match(rule, new CaptureDecision(locator, rule.action, rule.wait, rule.force, rule.multiple, value));
+        }
+        return null;
+    }
+
+    private static LocatorCandidate pickLocator(Rule rule, List<LocatorCandidate> ranked) {
+        for (LocatorCandidate candidate : ranked) {
+            if (!BEST.equalsIgnoreCase(rule.locator) && !candidate.getLabel().equalsIgnoreCase(rule.locator)) continue;
+            // Deciding blind is only safe on a locator that finds exactly this element
+            return candidate.rank() == 0 ? candidate : null;
+        }
+        return null;
+    }
+
+    /**
+     * A rule's decision for one capture.
+     */
+    public static class Match {
+        private final Rule rule;
+        private final CaptureDecision decision;
+
+        Match(Rule rule, CaptureDecision decision) {
+            this.rule = rule;
+            this.decision = decision;
+        }
+
+        public Rule getRule() {
+            return rule;
+        }
+
+        public CaptureDecision getDecision() {
+            return decision;
+        }
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    private static String column(String[] columns, int index, String fallback) {
+        if (index >= columns.length) return fallback;
+        String value = columns[index].trim();
+        return value.isEmpty() ? fallback : value;
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
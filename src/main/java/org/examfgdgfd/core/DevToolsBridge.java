@@ -0,0 +1,139 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.logging.AppLogger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Chrome DevTools bridge used for push-based element capture.
+ * The injected script calls a CDP binding on every click, so captures reach
+ * Java as events instead of being polled with executeScript.
+ * Network events can be forwarded too, to link captures to the requests they trigger.
+ */
+public class DevToolsBridge {
+    public static final String CAPTURE_BINDING = "ghostTesterCapture";
+
+    private static final Json JSON = new Json();
+
+    private final DevTools devTools;
+    private volatile String newDocumentScriptId;
+    private volatile boolean networkListening;
+
+    private DevToolsBridge(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * Open a DevTools session on the driver's current tab. The driver caches its DevTools, and a pooled
+     * browser may have closed the tab an earlier session was attached to, so a new session is always opened.
+     * Returns null when the driver has no CDP support, so callers can fall back to polling.
+     */
+    public static DevToolsBridge attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+
+        try {
+            Optional<DevTools> maybeDevTools = ((HasDevTools) driver).maybeGetDevTools();
+            if (maybeDevTools.isEmpty()) {
+                return null;
+            }
+
+            DevTools devTools = maybeDevTools.get();
+            devTools.createSession(driver.getWindowHandle());
+            return new DevToolsBridge(devTools);
+        } catch (Exception e) {
+            AppLogger.warn("DevTools unavailable, using polling capture: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Expose the capture binding to every execution context and forward its payloads.
+     */
+    public void exposeCaptureBinding(Consumer<Map<String, Object>> listener) {
+        devTools.send(new Command<>("Runtime.enable", Map.of()));
+        devTools.addListener(
+            new Event<Map<String, Object>>("Runtime.bindingCalled", input -> input.read(Json.MAP_TYPE)),
+            event -> {
+                if (!CAPTURE_BINDING.equals(event.get("name"))) return;
+                try {
+                    Map<String, Object> data = JSON.toType((String) event.get("payload"), Json.MAP_TYPE);
+                    listener.accept(data);
+                } catch (Exception e) {
+                    AppLogger.warn("Dropped malformed capture payload: " + e.getMessage());
+                }
+            }
+        );
+        devTools.send(new Command<>("Runtime.addBinding", Map.of("name", CAPTURE_BINDING)));
+    }
+
+    /**
+     * Forward XHR/fetch start and end events to the recorder.
+     */
+    public void enableNetwork(NetworkRecorder recorder) {
+        if (!networkListening) {
+            devTools.addListener(
+                new Event<Map<String, Object>>("Network.requestWillBeSent", input -> input.read(Json.MAP_TYPE)),
+                recorder::requestStarted);
+            devTools.addListener(
+                new Event<Map<String, Object>>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                event -> recorder.requestEnded(event, false));
+            devTools.addListener(
+                new Event<Map<String, Object>>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                event -> recorder.requestEnded(event, true));
+            networkListening = true;
+        }
+        devTools.send(new Command<>("Network.enable", Map.of()));
+    }
+
+    public void disableNetwork() {
+        devTools.send(new Command<>("Network.disable", Map.of()));
+    }
+
+    /**
+     * Register a script that runs in every new document and frame before the page's own scripts,
+     * so it survives navigations and reloads without being reinjected. Replaces the previous one.
+     */
+    public void installOnNewDocument(String source) {
+        if (newDocumentScriptId != null) {
+            devTools.send(new Command<>("Page.removeScriptToEvaluateOnNewDocument",
+                Map.of("identifier", newDocumentScriptId)));
+        }
+        Map<String, Object> result = devTools.send(new Command<>(
+            "Page.addScriptToEvaluateOnNewDocument",
+            Map.of("source", source),
+            input -> input.<Map<String, Object>>read(Json.MAP_TYPE)
+        ));
+        newDocumentScriptId = (String) result.get("identifier");
+    }
+
+    public void detach() {
+        try {
+            devTools.clearListeners();
+            networkListening = false;
+            if (newDocumentScriptId != null) {
+                devTools.send(new Command<>("Page.removeScriptToEvaluateOnNewDocument",
+                    Map.of("identifier", newDocumentScriptId)));
+                newDocumentScriptId = null;
+            }
+            devTools.send(new Command<>("Runtime.removeBinding", Map.of("name", CAPTURE_BINDING)));
+        } catch (Exception e) {
+            AppLogger.debug("DevTools detach: " + e.getMessage());
+        }
+        // The tab may be closed when the session is recycled, the next attach must not find this session
+        try {
+            devTools.disconnectSession();
+        } catch (Exception e) {
+            AppLogger.debug("DevTools disconnect: " + e.getMessage());
+        }
+    }
+}
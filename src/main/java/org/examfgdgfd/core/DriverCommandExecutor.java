@@ -0,0 +1,236 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.logging.AppLogger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs every WebDriver call on one thread, since WebDriver is not thread-safe.
+ * Commands are ordered by priority, duplicate status probes share one round trip,
+ * and each command is timed.
+ */
+public class DriverCommandExecutor {
+    private static final long SLOW_COMMAND_MS = 1000;
+
+    /**
+     * Lower ordinal runs first.
+     */
+    public enum Priority {
+        CAPTURE,
+        COMMAND,
+        PROBE
+    }
+
+    private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>();
+    private final Map<String, Task<?>> pendingProbes = new ConcurrentHashMap<>();
+    private final Map<String, CommandStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Thread worker;
+    private volatile WebDriver driver;
+    private volatile boolean running = true;
+
+    public DriverCommandExecutor() {
+        worker = new Thread(this::runLoop, "driver-commands");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void setDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public boolean hasDriver() {
+        return driver != null;
+    }
+
+    public <T> CompletableFuture<T> submit(String name, Priority priority, Function<WebDriver, T> command) {
+        Task<T> task = new Task<>(name, priority, command, sequence.incrementAndGet());
+        if (Thread.currentThread() == worker) {
+            // Already on the driver thread, queueing would deadlock a caller that waits
+            task.run();
+        } else {
+            queue.offer(task);
+            // Raced with shutdown, which may have drained the queue already
+            if (!running) failPending();
+        }
+        return task.future;
+    }
+
+    /**
+     * Submit a status probe. A probe with the same name that has not started yet is reused.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> probe(String name, Function<WebDriver, T> command) {
+        if (Thread.currentThread() == worker) {
+            return submit(name, Priority.PROBE, command);
+        }
+        Task<?> task = pendingProbes.computeIfAbsent(name, key -> {
+            Task<T> created = new Task<>(key, Priority.PROBE, command, sequence.incrementAndGet());
+            created.coalesced = true;
+            queue.offer(created);
+            return created;
+        });
+        if (!running) failPending();
+        return (CompletableFuture<T>) task.future;
+    }
+
+    /**
+     * Submit and wait for the result, rethrowing the command's own exception.
+     */
+    public <T> T call(String name, Priority priority, Function<WebDriver, T> command) {
+        try {
+            return submit(name, priority, command).join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    public <T> T call(String name, Priority priority, Function<WebDriver, T> command, long timeoutMs) throws TimeoutException {
+        try {
+            return submit(name, priority, command).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + name, e);
+        }
+    }
+
+    public Map<String, CommandStats> getStats() {
+        return new TreeMap<>(stats);
+    }
+
+    /**
+     * Stop the worker and fail every command still queued, so no caller waits on it forever.
+     */
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        failPending();
+    }
+
+    private void failPending() {
+        List<Task<?>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Task<?> task : pending) {
+            if (task.coalesced) pendingProbes.remove(task.name, task);
+            task.future.completeExceptionally(new IllegalStateException("Driver commands shut down before " + task.name + " ran"));
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) return (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        return new IllegalStateException(cause);
+    }
+
+    private final class Task<T> implements Comparable<Task<?>>, Runnable {
+        private final String name;
+        private final Priority priority;
+        private final Function<WebDriver, T> command;
+        private final long seq;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private boolean coalesced;
+
+        Task(String name, Priority priority, Function<WebDriver, T> command, long seq) {
+            this.name = name;
+            this.priority = priority;
+            this.command = command;
+            this.seq = seq;
+        }
+
+        @Override
+        public void run() {
+            if (coalesced) {
+                // Probes arriving from now on need a fresh round trip
+                pendingProbes.remove(name, this);
+            }
+
+            long start = System.nanoTime();
+            try {
+                WebDriver current = driver;
+                if (current == null) {
+                    throw new IllegalStateException("No browser session");
+                }
+                future.complete(command.apply(current));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                long end = System.nanoTime();
+                stats.computeIfAbsent(name, CommandStats::new).record(start - enqueuedAt, end - start);
+                long runMs = TimeUnit.NANOSECONDS.toMillis(end - start);
+                if (runMs >= SLOW_COMMAND_MS) {
+                    AppLogger.warn("Slow driver command " + name + ": " + runMs + " ms");
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * Round-trip timings for one command name.
+     */
+    public static class CommandStats {
+        private final String name;
+        private long count;
+        private long totalRunNanos;
+        private long maxRunNanos;
+        private long totalWaitNanos;
+
+        CommandStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long waitNanos, long runNanos) {
+            count++;
+            totalWaitNanos += waitNanos;
+            totalRunNanos += runNanos;
+            maxRunNanos = Math.max(maxRunNanos, runNanos);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized double getAverageRunMs() {
+            return count == 0 ? 0 : totalRunNanos / 1_000_000.0 / count;
+        }
+
+        @Override
+        public synchronized String toString() {
+            if (count == 0) return name + ": no calls";
+            return String.format("%s: %d calls, avg %.1f ms, max %.1f ms, avg queue wait %.1f ms",
+                name, count, totalRunNanos / 1_000_000.0 / count, maxRunNanos / 1_000_000.0,
+                totalWaitNanos / 1_000_000.0 / count);
+        }
+    }
+}
@@ -2,102 +2,315 @@ package org.examfgdgfd.core;
 
 import org.examfgdgfd.AutomationEngine;
 import org.examfgdgfd.FileManager;
-import org.examfgdgfd.ui.dialogs.ActionDialog;
-import org.examfgdgfd.ui.dialogs.LocatorDialog;
+import org.examfgdgfd.codegen.CaptureRecord;
+import org.examfgdgfd.codegen.FingerprintStore;
+import org.examfgdgfd.codegen.LocatorIndex;
+import org.examfgdgfd.codegen.RouteShard;
+import org.examfgdgfd.codegen.WriteBehindWriter;
+import org.examfgdgfd.config.AppConfig;
+import org.examfgdgfd.logging.AppLogger;
+import org.examfgdgfd.ui.components.CaptureQueuePanel;
+import org.examfgdgfd.ui.components.ConsolePanel;
 import javax.swing.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Manages element selection, action selection, and code generation.
  * Handles interaction between UI and business logic.
  */
 public class ElementSelectionManager {
+    private static final String GETTER_PREFIX = "element_";
+
     private AutomationEngine engine;
-    private FileManager fileManager;
-    private JFrame parentFrame;
-    private JTextArea console;
+    private WriteBehindWriter captureWriter;
+    private CaptureQueuePanel queuePanel;
+    private ConsolePanel console;
+    private final LocatorGenerator locatorGenerator = new LocatorGenerator();
+    private final ExecutorService rankingExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "locator-ranking");
+        t.setDaemon(true);
+        return t;
+    });
+    // One locator index per project folder, so repeated captures reuse existing getters
+    private final Map<Path, LocatorIndex> indexes = new ConcurrentHashMap<>();
+    // Last generated getter number per project folder, seeded from its index; only touched on the ranking thread
+    private final Map<Path, Integer> getterNumbers = new HashMap<>();
+    // Captures of one spy session form one flow, used to time and balance specs
+    private volatile String flowId = Long.toString(System.currentTimeMillis());
+    // Longest settle reported since the last capture; only touched on the ranking thread
+    private long pendingSettleMs;
+    private long nextTicket;
+    // Rules that resolve captures without the queue, null when off
+    private volatile CaptureProfiles profiles;
+    // Queued captures by ticket; resolved ones are written in capture order. Event thread only
+    private final TreeMap<Long, PendingCapture> pending = new TreeMap<>();
+
+    /**
+     * A ranked capture waiting in the queue, with everything needed to write it once resolved.
+     */
+    private static class PendingCapture {
+        final long ticket;
+        final Map<String, Object> data;
+        final long settleMs;
+        final String projectPath;
+        final String folderName;
+        final String url;
+        final String varName;
+        CaptureDecision decision;
+        boolean skipped;
+        // Null until the requests of the click are linked
+        NetworkWaits network;
+
+        PendingCapture(long ticket, Map<String, Object> data, long settleMs,
+                       String projectPath, String folderName, String url, String varName) {
+            this.ticket = ticket;
+            this.data = data;
+            this.settleMs = settleMs;
+            this.projectPath = projectPath;
+            this.folderName = folderName;
+            this.url = url;
+            this.varName = varName;
+        }
+
+        boolean isSettled() {
+            return skipped || (decision != null && network != null);
+        }
+    }
 
-    public ElementSelectionManager(AutomationEngine engine, FileManager fileManager, JFrame parentFrame, JTextArea console) {
+    public ElementSelectionManager(AutomationEngine engine, WriteBehindWriter captureWriter,
+                                   CaptureQueuePanel queuePanel, ConsolePanel console) {
         this.engine = engine;
-        this.fileManager = fileManager;
-        this.parentFrame = parentFrame;
+        this.captureWriter = captureWriter;
+        this.queuePanel = queuePanel;
         this.console = console;
+        queuePanel.setListener(new CaptureQueuePanel.Listener() {
+            @Override
+            public void resolved(long id, CaptureDecision decision) {
+                resolve(id, decision);
+            }
+
+            @Override
+            public void skipped(long id) {
+                skip(id);
+            }
+        });
     }
 
     /**
-     * Handle element selection with improved UI dialogs.
+     * Entry point for a new capture from any thread. Candidates come scored from the hover
+     * precompute, or are scored in the page with one round trip off the event thread,
+     * then the capture joins the queue panel in capture order, unless a capture profile resolves it.
+     * Nothing waits for the user.
+     * Output is filed under the route of the page the capture came from, as reported with the click.
+     * With network recording on, the requests the click started are linked in the background; the
+     * capture is queued right away and written once they are. The settle time measured after the previous capture is handed to this one.
+     * Getter names are numbered here too, after the highest one already in the project.
      */
-    public void handleElementSelection(Map<String, Object> data, String projectPath, String folderName, String targetUrl, String varName) {
-        try {
-            // Generate locator options
-            ArrayList<String> locators = generateLocators(data);
-
-            // Show locator selection dialog
-            LocatorDialog locatorDialog = new LocatorDialog(
-                parentFrame,
-                locators,
-                "Tag: " + data.get("tag") + " | Text: " + (String) data.get("text")
-            );
-            locatorDialog.setVisible(true);
-
-            if (!locatorDialog.isConfirmed()) {
-                appendConsole("[!] Locator selection cancelled\n");
-                return;
+    public void captureElement(Map<String, Object> data, String projectPath, String folderName, String targetUrl) {
+        rankingExecutor.submit(() -> {
+            long settleMs = pendingSettleMs;
+            pendingSettleMs = 0;
+            // First capture for a project pays for the scan here, never on the event thread
+            LocatorIndex index = openIndex(projectPath, folderName);
+            String varName = GETTER_PREFIX + getterNumbers.merge(rootOf(projectPath, folderName),
+                index.highestNumbered(GETTER_PREFIX) + 1, (last, seeded) -> Math.max(last + 1, seeded));
+            AppLogger.debug("Element captured: " + varName);
+            List<LocatorCandidate> locators = locatorGenerator.generate(data);
+            // Scores computed in the page on hover arrive with the click; only the rest cost a round trip
+            List<LocatorCandidate> unscored = locatorGenerator.applyScores(locators, data.get("scores"));
+            boolean scored = unscored.isEmpty() || engine.scoreLocators(data.get("seq"), unscored);
+            if (scored || unscored.size() < locators.size()) {
+                locators = locatorGenerator.rank(locators);
+            }
+            List<LocatorCandidate> ranked = locators;
+            // Route by the URL at the click; reading it now would file a navigating click under the next page
+            Object clickedOn = data.get("url");
+            String pageUrl = clickedOn instanceof String && !((String) clickedOn).isEmpty()
+                ? (String) clickedOn : engine.getCurrentUrl();
+            String captureUrl = pageUrl.isEmpty() ? targetUrl : pageUrl;
+            PendingCapture capture = new PendingCapture(++nextTicket, data, settleMs,
+                projectPath, folderName, captureUrl, varName);
+            // A decision made in the page overlay wins, then the profiles; otherwise the user answers in the queue
+            CaptureDecision decision = pagePick(data.get("decision"), ranked);
+            String resolvedBy = decision == null ? null : "quick pick";
+            CaptureProfiles rules = profiles;
+            CaptureProfiles.Match match = decision == null && rules != null ? rules.decide(data, ranked) : null;
+            if (match != null) {
+                decision = match.getDecision();
+                resolvedBy = "profile '" + match.getRule().getSource() + "'";
             }
+            CaptureDecision resolved = decision;
+            String source = resolvedBy;
+            SwingUtilities.invokeLater(() -> enqueue(capture, ranked, resolved, source));
+
+            // Posted after the enqueue, so the capture is in the queue when its waits arrive
+            Object clickedAt = data.get("time");
+            CompletableFuture<List<NetworkRecorder.Request>> linked = clickedAt instanceof Number
+                ? engine.requestsTriggeredBy(((Number) clickedAt).longValue())
+                : CompletableFuture.completedFuture(List.of());
+            linked.whenComplete((requests, error) -> {
+                NetworkWaits waits = NetworkWaits.of(error == null ? requests : List.of());
+                SwingUtilities.invokeLater(() -> networkLinked(capture, waits));
+            });
+        });
+    }
+
+    private void networkLinked(PendingCapture capture, NetworkWaits waits) {
+        capture.network = waits;
+        if (pending.containsKey(capture.ticket)) flush();
+    }
+
+    /**
+     * A settle record from the page: how long the DOM kept changing after a capture or a page load.
+     * Goes through the ranking thread so it is applied before the next capture in arrival order.
+     */
+    public void recordSettle(Map<String, Object> data) {
+        Object settle = data.get("settleMs");
+        if (!(settle instanceof Number)) return;
+        long settleMs = ((Number) settle).longValue();
+        rankingExecutor.submit(() -> {
+            pendingSettleMs = Math.max(pendingSettleMs, settleMs);
+        });
+    }
 
-            String selectedLocator = locatorDialog.getSelectedLocator();
-
-            // Show action selection dialog
-            ActionDialog.ActionOption[] actions = new ActionDialog.ActionOption[]{
-                new ActionDialog.ActionOption("[CLICK]", "Click", "Simulate a mouse click on the element"),
-                new ActionDialog.ActionOption("[TYPE]", "Type", "Enter text into an input field"),
-                new ActionDialog.ActionOption("[HOVER]", "Hover", "Hover over the element"),
-                new ActionDialog.ActionOption("[SCROLL]", "ScrollIntoView", "Scroll element into view"),
-                new ActionDialog.ActionOption("[ASSERT]", "Assert Visible", "Assert that element is visible"),
-                new ActionDialog.ActionOption("[TOOLTIP]", "Check Tooltip", "Assert element tooltip text"),
-                new ActionDialog.ActionOption("[REMOVE]", "Remove from DOM", "Remove element from DOM to clear the way"),
-                new ActionDialog.ActionOption("[WAIT]", "Wait", "Wait for element to be ready (no action)"),
-                new ActionDialog.ActionOption("[WAIT+CLICK]", "Wait & Click", "Wait for element then click")
-            };
-
-            ActionDialog actionDialog = new ActionDialog(parentFrame, actions);
-            actionDialog.setVisible(true);
-
-            if (!actionDialog.isConfirmed()) {
-                appendConsole("[!] Action selection cancelled\n");
-                return;
+    /**
+     * Resolve matching captures by rule from now on; null turns the profiles off.
+     */
+    public void setProfiles(CaptureProfiles profiles) {
+        this.profiles = profiles;
+    }
+
+    /**
+     * The decision sent back by the in-page quick pick, on the candidate with the same css and text.
+     */
+    @SuppressWarnings("unchecked")
+    private static CaptureDecision pagePick(Object picked, List<LocatorCandidate> ranked) {
+        if (!(picked instanceof Map)) return null;
+        Map<String, Object> pick = (Map<String, Object>) picked;
+        CaptureDecision.Action action = CaptureDecision.Action.fromLabel(String.valueOf(pick.get("action")));
+        if (action == null) return null;
+        String wait = Arrays.asList(CaptureDecision.WAITS).contains(pick.get("wait"))
+            ? (String) pick.get("wait") : CaptureDecision.DEFAULT_WAIT;
+        String value = (String) pick.get("value");
+        if (action.needsValue() && (value == null || value.isEmpty())) return null;
+        for (LocatorCandidate candidate : ranked) {
+            if (Objects.equals(candidate.getCss(), pick.get("css")) && Objects.equals(candidate.getText(), pick.get("text"))) {
+                return new CaptureDecision(candidate, action, wait, false, false, action.needsValue() ? value : null);
             }
+        }
+        return null;
+    }
+
+    private void enqueue(PendingCapture capture, List<LocatorCandidate> locators, CaptureDecision decision, String resolvedBy) {
+        pending.put(capture.ticket, capture);
+        Object text = capture.data.get("text");
+        String description = capture.data.get("tag") + (text == null || text.toString().isEmpty() ? "" : "  '" + text + "'");
+        if (decision != null) {
+            // Still written through the queue order, behind any earlier capture the user has not answered
+            capture.decision = decision;
+            appendConsole("[>] Capture #" + capture.ticket + " (" + description + ") resolved by " + resolvedBy
+                + ": " + decision.getAction().getLabel() + "\n");
+            flush();
+            return;
+        }
+        queuePanel.addCapture(capture.ticket, description, locators);
+        appendConsole("[?] Capture #" + capture.ticket + " queued (" + description + ")\n");
+    }
 
-            String selectedAction = actionDialog.getSelectedAction();
-
-            // Get wait state
-            String[] waits = {"None", "be.visible", "exist", "be.enabled"};
-            String selectedWait = (String) JOptionPane.showInputDialog(
-                parentFrame,
-                "⏳ Select wait condition:",
-                "Wait State",
-                JOptionPane.PLAIN_MESSAGE,
-                null,
-                waits,
-                waits[1]
-            );
-
-            if (selectedWait == null) {
-                appendConsole("[!] Wait state selection cancelled\n");
-                return;
+    private void resolve(long ticket, CaptureDecision decision) {
+        PendingCapture capture = pending.get(ticket);
+        if (capture == null) return;
+        capture.decision = decision;
+        flush();
+    }
+
+    private void skip(long ticket) {
+        PendingCapture capture = pending.get(ticket);
+        if (capture == null) return;
+        capture.skipped = true;
+        appendConsole("[!] Capture #" + ticket + " skipped\n");
+        flush();
+    }
+
+    /**
+     * Write resolved captures from the head of the queue, so steps keep the order they were clicked in
+     * whatever order they were answered.
+     */
+    private void flush() {
+        while (!pending.isEmpty() && pending.firstEntry().getValue().isSettled()) {
+            PendingCapture capture = pending.pollFirstEntry().getValue();
+            queuePanel.remove(capture.ticket);
+            if (!capture.skipped) write(capture);
+        }
+        for (PendingCapture held : pending.values()) {
+            if (held.isSettled()) {
+                queuePanel.markWaiting(held.ticket, "Ready - waiting for #" + pending.firstKey());
+            } else if (held.decision != null) {
+                queuePanel.markWaiting(held.ticket, "Ready - waiting for its requests to finish");
             }
+        }
+    }
+
+    private void write(PendingCapture capture) {
+        try {
+            CaptureDecision decision = capture.decision;
+            // The measured timeout goes on the query, so every assertion and action chained to it retries that long
+            long timeoutMs = stepTimeout(capture.settleMs);
+            String selectedLocator = LocatorGenerator.withTimeout(decision.getLocator().getCode(), timeoutMs);
+
+            // Reuse a getter that already returns this locator instead of writing a duplicate
+            LocatorIndex index = openIndex(capture.projectPath, capture.folderName);
+            String pageClass = RouteShard.of(capture.url).getClassName();
+            LocatorIndex.Entry existing = index.lookup(pageClass, selectedLocator);
+            boolean reused = existing != null;
+            String getterName = reused ? existing.getGetterName() : freeName(index, pageClass, capture.varName);
 
             // Generate code
-            String specLine = generateFinalCode(varName, selectedAction, selectedWait);
-            String pomLine = "get " + varName + "() { return " + selectedLocator + "; }";
+            String specLine = generateFinalCode(getterName, decision);
+            if (!capture.network.isEmpty()) {
+                // Intercepts must be registered before the step that fires the requests
+                List<String> lines = new ArrayList<>(capture.network.getIntercepts());
+                lines.add(specLine);
+                lines.addAll(capture.network.getWaits());
+                specLine = String.join("\n", lines);
+            }
+            String pomLine = reused ? null : "get " + getterName + "() { return " + selectedLocator + "; }";
+            Map<String, Object> fingerprint = null;
+            if (!reused) {
+                fingerprint = FingerprintStore.fingerprint(capture.data, selectedLocator,
+                    decision.getLocator().getCss(), decision.getLocator().getText());
+                index.register(getterName, pageClass, selectedLocator,
+                    FileManager.pageObjectFile(capture.projectPath, capture.folderName, capture.url));
+            }
 
-            // Update files
-            fileManager.updateFiles(projectPath, folderName, varName, pomLine, specLine, targetUrl);
+            // Queue for the background writer, which journals it; the event thread never waits on disk
+            Object clickedAt = capture.data.get("time");
+            captureWriter.submit(new CaptureRecord(0, capture.projectPath, capture.folderName, getterName, pomLine, specLine,
+                capture.url, flowId, clickedAt instanceof Number ? ((Number) clickedAt).longValue() : System.currentTimeMillis(),
+                (String) capture.data.get("type"), capture.settleMs, fingerprint));
 
             // Display results
-            appendConsole("[+] [POM] " + pomLine + "\n");
-            appendConsole("[+] [SPEC] " + specLine + "\n");
+            if (reused) {
+                appendConsole("[=] [POM] Reusing page." + getterName + " from " + existing.getFile().getFileName() + "\n");
+            } else {
+                appendConsole("[+] [POM] " + pomLine + "\n");
+            }
+            appendConsole("[+] [SPEC] " + specLine.replace("\n", "\n         ") + "\n");
+            if (timeoutMs > 0) {
+                appendConsole("[~] Page settled in " + capture.settleMs + " ms before this step, query timeout set to " + timeoutMs + " ms\n");
+            }
             appendConsole("=====================================================\n");
 
         } catch (Exception e) {
@@ -106,118 +319,101 @@ public class ElementSelectionManager {
         }
     }
 
-    private ArrayList<String> generateLocators(Map<String, Object> data) {
-        ArrayList<String> locs = new ArrayList<>();
-
-        String id = (String) data.get("id");
-        String text = (String) data.get("text");
-        String tag = (String) data.get("tag");
-        String className = (String) data.get("class");
-        String type = (String) data.get("type");
-
-        // cy.get() with ID
-        if (id != null && !id.isEmpty()) {
-            locs.add("cy.get('#" + id + "')  // ID selector");
-        }
-
-        // cy.get() with class
-        if (className != null && !className.isEmpty()) {
-            String[] classes = className.split(" ");
-            if (classes.length > 0) {
-                locs.add("cy.get('." + classes[0] + "')  // Class selector");
-            }
+    /**
+     * The proposed getter name, or the next numbered one when the page class already has it:
+     * fingerprints and repairs address getters by name, so names must stay unique within a class.
+     */
+    private static String freeName(LocatorIndex index, String pageClass, String proposed) {
+        String name = proposed;
+        while (index.hasGetter(pageClass, name)) {
+            name = GETTER_PREFIX + (index.highestNumbered(GETTER_PREFIX) + 1);
         }
+        return name;
+    }
 
-        // cy.get() with tag
-        if (tag != null && !tag.isEmpty()) {
-            locs.add("cy.get('" + tag + "')  // Tag selector");
-        }
+    /**
+     * Start a new recording flow; later captures are timed against each other, not the previous flow.
+     */
+    public void startFlow() {
+        flowId = Long.toString(System.currentTimeMillis());
+    }
 
-        // cy.get() with attribute selector
-        if (type != null && !type.isEmpty()) {
-            locs.add("cy.get('[type=\"" + type + "\"]')  // Type attribute");
-        }
+    /**
+     * Captures still waiting in the queue. Event thread only.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
 
-        // cy.contains() with text - Find by text content
-        if (text != null && !text.isEmpty() && text.length() < 50) {
-            String cleanText = text.replace("'", "\\'");
-            locs.add("cy.contains('" + cleanText + "')  // Find by text");
-        }
+    /**
+     * Locator index for a project folder, scanned on first use.
+     */
+    public LocatorIndex openIndex(String projectPath, String folderName) {
+        return indexes.computeIfAbsent(rootOf(projectPath, folderName), r -> new LocatorIndex(r).open());
+    }
 
-        // cy.get() + contains() - Tag + text combination
-        if (tag != null && !tag.isEmpty() && text != null && !text.isEmpty() && text.length() < 50) {
-            String cleanText = text.replace("'", "\\'");
-            locs.add("cy.get('" + tag + "').contains('" + cleanText + "')  // Tag with text");
-        }
+    private static Path rootOf(String projectPath, String folderName) {
+        return Paths.get(projectPath, folderName).toAbsolutePath().normalize();
+    }
 
-        // cy.find() with class inside parent
-        if (className != null && !className.isEmpty() && tag != null && !tag.isEmpty()) {
-            String[] classes = className.split(" ");
-            if (classes.length > 0) {
-                locs.add("cy.get('" + tag + "').find('." + classes[0] + "')  // Find by class");
-            }
-        }
+    /**
+     * Persist and close all locator indexes.
+     */
+    public void shutdown() {
+        rankingExecutor.shutdownNow();
+        indexes.values().forEach(LocatorIndex::close);
+    }
 
-        return locs;
+    /**
+     * Timeout for a step whose page took settleMs to settle: the measurement plus headroom,
+     * rounded up to half a second, or 0 when the Cypress default already covers it.
+     */
+    static long stepTimeout(long settleMs) {
+        long padded = settleMs * AppConfig.SETTLE_TIMEOUT_HEADROOM_PERCENT / 100;
+        long timeout = (padded + 499) / 500 * 500;
+        return timeout > AppConfig.CYPRESS_DEFAULT_TIMEOUT_MS ? timeout : 0;
     }
 
-    private String generateFinalCode(String varName, String action, String wait) {
+    /**
+     * The spec step for a decision. Pure: every choice comes in with the decision.
+     */
+    static String generateFinalCode(String varName, CaptureDecision decision) {
         StringBuilder sb = new StringBuilder("page." + varName);
 
-        if (!wait.equals("None")) {
-            sb.append(".should('").append(wait).append("')");
+        if (!decision.getWait().equals("None")) {
+            sb.append(".should('").append(decision.getWait()).append("')");
         }
 
-        boolean force = JOptionPane.showConfirmDialog(
-            parentFrame,
-            "Force Action? (Override waiting conditions)",
-            "Options",
-            JOptionPane.YES_NO_OPTION
-        ) == JOptionPane.YES_OPTION;
-
-        boolean multi = JOptionPane.showConfirmDialog(
-            parentFrame,
-            "Multiple Elements?",
-            "Options",
-            JOptionPane.YES_NO_OPTION
-        ) == JOptionPane.YES_OPTION;
-
-        String opts = "";
-        if (force && multi) {
-            opts = "{ force: true, multiple: true }";
-        } else if (force) {
-            opts = "{ force: true }";
-        } else if (multi) {
-            opts = "{ multiple: true }";
-        }
+        // Timeouts live on the getter's query; actions only carry their own options
+        String force = decision.isForce() ? "force: true" : null;
+        String multi = decision.isMultiple() ? "multiple: true" : null;
+        String opts = options(force, multi);
+        String value = decision.getValue() == null ? "" : decision.getValue().replace("\\", "\\\\").replace("'", "\\'");
 
-        switch (action) {
-            case "Type":
-                String val = JOptionPane.showInputDialog("Enter text to type:");
-                if (val == null) return "";
-                sb.append(".clear().type('").append(val.replace("'", "\\'")).append("', ").append(opts).append(");");
+        switch (decision.getAction()) {
+            case TYPE:
+                sb.append(".clear().type('").append(value).append("'").append(argument(opts)).append(");");
                 break;
-            case "Click":
+            case CLICK:
                 sb.append(".click(").append(opts).append(");");
                 break;
-            case "Hover":
-                sb.append(".trigger('mouseover', ").append(opts).append(");");
+            case HOVER:
+                sb.append(".trigger('mouseover'").append(argument(opts)).append(");");
                 break;
-            case "Check Tooltip":
-                String tooltipText = JOptionPane.showInputDialog("Enter expected tooltip text:");
-                if (tooltipText == null) return "";
-                sb.append(".should('have.attr', 'title', '").append(tooltipText.replace("'", "\\'")).append("');");
+            case CHECK_TOOLTIP:
+                sb.append(".should('have.attr', 'title', '").append(value).append("');");
                 break;
-            case "Remove from DOM":
+            case REMOVE:
                 sb.append(".invoke('remove'); // Element removed from DOM");
                 break;
-            case "Wait":
+            case WAIT:
                 sb.append("; // Waiting for element to be ready");
                 break;
-            case "Wait & Click":
-                sb.append(".click({ force: true, waitForAnimations: true }").append(");");
+            case WAIT_AND_CLICK:
+                // Cypress waits for actionability before clicking, forcing would skip that
+                sb.append(".click(").append(opts).append(");");
                 break;
-            case "Assert Visible":
+            case ASSERT_VISIBLE:
                 sb.append(".should('be.visible');");
                 break;
             default:
@@ -227,11 +423,19 @@ public class ElementSelectionManager {
         return sb.toString();
     }
 
+    private static String options(String... entries) {
+        List<String> set = new ArrayList<>();
+        for (String entry : entries) {
+            if (entry != null) set.add(entry);
+        }
+        return set.isEmpty() ? "" : "{ " + String.join(", ", set) + " }";
+    }
+
+    private static String argument(String options) {
+        return options.isEmpty() ? "" : ", " + options;
+    }
+
     public void appendConsole(String text) {
-        SwingUtilities.invokeLater(() -> {
-            console.append(text);
-            console.setCaretPosition(console.getDocument().getLength());
-        });
+        console.appendText(text);
     }
 }
-
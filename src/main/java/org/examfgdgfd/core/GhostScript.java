@@ -0,0 +1,92 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.config.AppConfig;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the in-page scripts shipped under /ghost and binds them to their config.
+ */
+public final class GhostScript {
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+    private static final Json JSON = new Json();
+    private static final String INTERACTIVE_SELECTOR =
+        "input:not([type=hidden]), button, a[href], select, textarea, [contenteditable=''], [contenteditable=true], " +
+        "[role=button], [role=link], [role=checkbox], [role=radio], [role=switch], [role=tab], " +
+        "[role=menuitem], [role=option], [role=textbox], [role=combobox], [role=searchbox]";
+
+    private static final List<String> TEST_ATTRIBUTES = List.of("data-testid", "data-test", "data-cy", "data-qa");
+
+    // Quick-pick keys; the labels come back in the decision and must match CaptureDecision.Action
+    private static final Map<String, String> QUICK_ACTIONS = quickActions();
+
+    private GhostScript() {
+    }
+
+    /**
+     * Tracker source ready to run in a page or to register for new documents.
+     */
+    public static String tracker() {
+        return tracker(Map.of());
+    }
+
+    /**
+     * Tracker source starting with the given runtime settings, e.g. passThrough or quickPick.
+     */
+    public static String tracker(Map<String, Object> settings) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("binding", DevToolsBridge.CAPTURE_BINDING);
+        config.put("capacity", AppConfig.CAPTURE_BUFFER_SIZE);
+        config.put("interactiveSelector", INTERACTIVE_SELECTOR);
+        config.put("testAttributes", TEST_ATTRIBUTES);
+        config.put("textLimit", AppConfig.CAPTURE_TEXT_LIMIT);
+        config.put("textNodeLimit", AppConfig.CAPTURE_TEXT_NODE_LIMIT);
+        config.put("attributeLimit", AppConfig.CAPTURE_ATTRIBUTE_LIMIT);
+        config.put("attributeValueLimit", AppConfig.CAPTURE_ATTRIBUTE_VALUE_LIMIT);
+        config.put("ancestorLimit", AppConfig.CAPTURE_ANCESTOR_LIMIT);
+        config.put("settleQuietMs", AppConfig.SETTLE_QUIET_MS);
+        config.put("settleMaxMs", AppConfig.SETTLE_MAX_MS);
+        config.put("hoverDebounceMs", AppConfig.HOVER_PRECOMPUTE_DEBOUNCE_MS);
+        config.put("hoverScoreLimit", AppConfig.HOVER_SCORE_LIMIT);
+        config.put("hoverScoreBudgetMs", AppConfig.HOVER_SCORE_BUDGET_MS);
+        config.put("repairMinScore", AppConfig.REPAIR_MIN_SCORE);
+        config.put("repairMinMargin", AppConfig.REPAIR_MIN_MARGIN);
+        config.put("repairTextWords", AppConfig.REPAIR_TEXT_WORDS);
+        config.put("quickActions", QUICK_ACTIONS);
+        config.put("waits", List.of(CaptureDecision.WAITS));
+        config.put("settings", settings);
+        return load("ghost-tracker.js") + "(" + JSON.toJson(config) + ");";
+    }
+
+    private static Map<String, String> quickActions() {
+        Map<String, String> keys = new LinkedHashMap<>();
+        keys.put("c", CaptureDecision.Action.CLICK.getLabel());
+        keys.put("t", CaptureDecision.Action.TYPE.getLabel());
+        keys.put("h", CaptureDecision.Action.HOVER.getLabel());
+        keys.put("s", CaptureDecision.Action.SCROLL.getLabel());
+        keys.put("v", CaptureDecision.Action.ASSERT_VISIBLE.getLabel());
+        keys.put("w", CaptureDecision.Action.WAIT_AND_CLICK.getLabel());
+        return keys;
+    }
+
+    static String load(String name) {
+        return CACHE.computeIfAbsent(name, key -> {
+            try (InputStream in = GhostScript.class.getResourceAsStream("/ghost/" + key)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing script resource: " + key);
+                }
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
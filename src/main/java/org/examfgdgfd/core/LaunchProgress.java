@@ -0,0 +1,63 @@
+package org.examfgdgfd.core;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lifecycle of one browser launch. Each stage is a future that completes with
+ * the milliseconds elapsed since the launch started, so callers react without polling.
+ */
+public class LaunchProgress {
+
+    public enum Stage {
+        DRIVER_RESOLVED("Driver resolved"),
+        BROWSER_STARTED("Browser started"),
+        DOM_READY("DOM ready"),
+        SCRIPT_INJECTED("Script injected");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<Stage, CompletableFuture<Long>> stages = new EnumMap<>(Stage.class);
+
+    public LaunchProgress() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new CompletableFuture<>());
+        }
+    }
+
+    public CompletableFuture<Long> stage(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Completes once the tracker is live and the page can be recorded.
+     */
+    public CompletableFuture<Long> ready() {
+        return stage(Stage.SCRIPT_INJECTED);
+    }
+
+    public void complete(Stage stage) {
+        stages.get(stage).complete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Fail every stage that has not been reached yet.
+     */
+    public void fail(Throwable error) {
+        for (CompletableFuture<Long> future : stages.values()) {
+            future.completeExceptionally(error);
+        }
+    }
+}
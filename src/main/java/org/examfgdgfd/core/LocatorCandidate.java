@@ -0,0 +1,88 @@
+package org.examfgdgfd.core;
+
+/**
+ * One suggested Cypress locator: the code that goes into the getter and a short label for the UI.
+ * The css/text pair is what the page evaluates when the candidate is scored.
+ */
+public class LocatorCandidate {
+    public static final int UNSCORED = -2;
+    public static final int INVALID = -1;
+
+    private final String code;
+    private final String label;
+    private final String css;
+    private final String text;
+
+    private int matchCount = UNSCORED;
+    private boolean firstMatch;
+    private boolean visible;
+
+    public LocatorCandidate(String code, String label, String css, String text) {
+        this.code = code;
+        this.label = label;
+        this.css = css;
+        this.text = text;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getCss() {
+        return css;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setScore(int matchCount, boolean firstMatch, boolean visible) {
+        this.matchCount = matchCount;
+        this.firstMatch = firstMatch;
+        this.visible = visible;
+    }
+
+    public boolean isScored() {
+        return matchCount != UNSCORED;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    public boolean isFirstMatch() {
+        return firstMatch;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Unique and on target is best; then on target with fewer matches; anything else last.
+     */
+    public int rank() {
+        if (!isScored()) return 3;
+        if (matchCount == 1 && firstMatch) return 0;
+        if (firstMatch) return 1;
+        return 2;
+    }
+
+    @Override
+    public String toString() {
+        if (!isScored()) return code + "  // " + label;
+        String score;
+        if (matchCount == INVALID) {
+            score = "invalid";
+        } else if (matchCount == 1) {
+            score = firstMatch ? "unique" : "1 match, other element";
+        } else {
+            score = matchCount + " matches" + (firstMatch ? "" : ", target not first");
+        }
+        return code + "  // " + label + " [" + score + (visible ? "" : ", hidden") + "]";
+    }
+}
@@ -0,0 +1,152 @@
+package org.examfgdgfd.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds candidate Cypress locators from captured element data, best first.
+ * Stateless and safe to call from worker threads.
+ */
+public class LocatorGenerator {
+
+    // A query call with a single quoted argument and no options yet: cy.get('...'), .contains('...'), .find('...')
+    private static final Pattern QUERY = Pattern.compile("((?:cy\\.get|cy\\.contains|\\.contains|\\.find)\\('(?:\\\\.|[^'\\\\])*')\\)");
+    private static final Pattern TIMEOUT = Pattern.compile("\\{ timeout: (\\d+) \\}");
+
+    public List<LocatorCandidate> generate(Map<String, Object> data) {
+        List<LocatorCandidate> locs = new ArrayList<>();
+
+        String id = (String) data.get("id");
+        String text = (String) data.get("text");
+        String tag = (String) data.get("tag");
+        String className = (String) data.get("class");
+        String type = (String) data.get("type");
+        String selector = (String) data.get("selector");
+
+        // Shortest unique path computed in the page
+        if (selector != null && !selector.isEmpty()) {
+            locs.add(new LocatorCandidate("cy.get('" + escape(selector) + "')", "Shortest unique path", selector, null));
+        }
+
+        // cy.get() with ID
+        if (id != null && !id.isEmpty() && !("#" + id).equals(selector)) {
+            locs.add(new LocatorCandidate("cy.get('#" + id + "')", "ID selector", "#" + id, null));
+        }
+
+        // cy.get() with class
+        String firstClass = firstClass(className);
+        if (firstClass != null) {
+            locs.add(new LocatorCandidate("cy.get('." + firstClass + "')", "Class selector", "." + firstClass, null));
+        }
+
+        // cy.get() with tag
+        if (tag != null && !tag.isEmpty()) {
+            locs.add(new LocatorCandidate("cy.get('" + tag + "')", "Tag selector", tag, null));
+        }
+
+        // cy.get() with attribute selector
+        if (type != null && !type.isEmpty()) {
+            locs.add(new LocatorCandidate("cy.get('[type=\"" + type + "\"]')", "Type attribute", "[type=\"" + type + "\"]", null));
+        }
+
+        // cy.contains() with text - Find by text content
+        if (text != null && !text.isEmpty() && text.length() < 50) {
+            locs.add(new LocatorCandidate("cy.contains('" + escape(text) + "')", "Find by text", null, text));
+        }
+
+        // cy.get() + contains() - Tag + text combination
+        if (tag != null && !tag.isEmpty() && text != null && !text.isEmpty() && text.length() < 50) {
+            locs.add(new LocatorCandidate("cy.get('" + tag + "').contains('" + escape(text) + "')", "Tag with text", tag, text));
+        }
+
+        // cy.find() with class inside parent
+        if (firstClass != null && tag != null && !tag.isEmpty()) {
+            locs.add(new LocatorCandidate("cy.get('" + tag + "').find('." + firstClass + "')", "Find by class", tag + " ." + firstClass, null));
+        }
+
+        return locs;
+    }
+
+    /**
+     * Order scored candidates best first and drop those that match nothing or fail to parse.
+     * Unscored candidates are kept in their original order.
+     */
+    public List<LocatorCandidate> rank(List<LocatorCandidate> candidates) {
+        List<LocatorCandidate> ranked = new ArrayList<>();
+        for (LocatorCandidate candidate : candidates) {
+            if (candidate.isScored() && candidate.getMatchCount() <= 0) continue;
+            ranked.add(candidate);
+        }
+        ranked.sort(Comparator
+            .comparingInt(LocatorCandidate::rank)
+            .thenComparing(c -> !c.isVisible())
+            .thenComparingInt(c -> c.isScored() ? c.getMatchCount() : 0));
+        // Never leave the user without a choice
+        return ranked.isEmpty() ? candidates : ranked;
+    }
+
+    /**
+     * Copy scores the page computed while hovering onto the matching candidates (same css and text).
+     * Returns the candidates still unscored, which need a scoring round trip.
+     */
+    @SuppressWarnings("unchecked")
+    public List<LocatorCandidate> applyScores(List<LocatorCandidate> candidates, Object precomputed) {
+        if (!(precomputed instanceof List)) return candidates;
+
+        Map<String, Map<String, Object>> byKey = new HashMap<>();
+        for (Object entry : (List<Object>) precomputed) {
+            if (!(entry instanceof Map)) continue;
+            Map<String, Object> score = (Map<String, Object>) entry;
+            byKey.put(key((String) score.get("css"), (String) score.get("text")), score);
+        }
+
+        List<LocatorCandidate> unscored = new ArrayList<>();
+        for (LocatorCandidate candidate : candidates) {
+            Map<String, Object> score = byKey.get(key(candidate.getCss(), candidate.getText()));
+            if (score == null || !(score.get("count") instanceof Number)) {
+                unscored.add(candidate);
+                continue;
+            }
+            candidate.setScore(((Number) score.get("count")).intValue(),
+                Boolean.TRUE.equals(score.get("first")), Boolean.TRUE.equals(score.get("visible")));
+        }
+        return unscored;
+    }
+
+    private static String key(String css, String text) {
+        return (css == null ? "" : css) + "|" + (text == null ? "" : text);
+    }
+
+    private static String firstClass(String className) {
+        if (className == null) return null;
+        String trimmed = className.trim();
+        if (trimmed.isEmpty()) return null;
+        return trimmed.split("\\s+")[0];
+    }
+
+    /**
+     * Locator code with a timeout option on every query, so assertions and actions chained to it
+     * retry that long. Returns the code unchanged for timeouts of 0.
+     */
+    static String withTimeout(String code, long timeoutMs) {
+        if (timeoutMs <= 0) return code;
+        return QUERY.matcher(code).replaceAll("$1, { timeout: " + timeoutMs + " })");
+    }
+
+    /**
+     * Timeout option written into locator code by withTimeout, or 0 when it has none.
+     */
+    static long timeoutOf(String code) {
+        Matcher matcher = TIMEOUT.matcher(code);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("'", "\\'");
+    }
+}
@@ -0,0 +1,155 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.AutomationEngine;
+import org.examfgdgfd.FileManager;
+import org.examfgdgfd.codegen.FingerprintStore;
+import org.examfgdgfd.codegen.JsFileModel;
+import org.examfgdgfd.codegen.LocatorIndex;
+import org.examfgdgfd.codegen.RouteShard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heals the getters of the current page whose locator no longer finds its element.
+ * Every recorded getter is checked in one script call; the page matches each broken one to an
+ * element by its recorded fingerprint, and only those getters are rewritten. Getters edited by
+ * hand since they were recorded are left alone.
+ */
+public class LocatorRepair {
+    private final AutomationEngine engine;
+    private final FileManager fileManager;
+
+    public LocatorRepair(AutomationEngine engine, FileManager fileManager) {
+        this.engine = engine;
+        this.fileManager = fileManager;
+    }
+
+    /**
+     * What a repair run found on one page.
+     */
+    public static class Result {
+        private final String className;
+        private final List<String> repaired = new ArrayList<>();
+        private final List<String> unresolved = new ArrayList<>();
+        private final List<String> edited = new ArrayList<>();
+        private final List<String> duplicated = new ArrayList<>();
+        private int healthy;
+
+        Result(String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * New getter lines written, one per repaired getter.
+         */
+        public List<String> getRepaired() {
+            return repaired;
+        }
+
+        /**
+         * Broken getters without a confident match on this page.
+         */
+        public List<String> getUnresolved() {
+            return unresolved;
+        }
+
+        /**
+         * Getters changed by hand since recording, not checked.
+         */
+        public List<String> getEdited() {
+            return edited;
+        }
+
+        /**
+         * Getter names declared more than once in the page class, not checked: a rewrite could hit the wrong one.
+         */
+        public List<String> getDuplicated() {
+            return duplicated;
+        }
+
+        public int getHealthy() {
+            return healthy;
+        }
+    }
+
+    public Result repair(String projectPath, String folderName) throws IOException {
+        String url = engine.getCurrentUrl();
+        String className = RouteShard.of(url).getClassName();
+        Result result = new Result(className);
+
+        Path pageFile = FileManager.pageObjectFile(projectPath, folderName, url);
+        JsFileModel model = fileManager.pageModel(pageFile);
+        if (model == null) return result;
+
+        Path root = Paths.get(projectPath, folderName);
+        FingerprintStore store = fileManager.getFingerprints();
+        Map<String, Map<String, Object>> prints = store.load(root, className);
+
+        Map<String, Integer> declared = new HashMap<>();
+        for (JsFileModel.Block cls : model.getClasses()) {
+            for (JsFileModel.Getter getter : cls.getGetters()) {
+                declared.merge(getter.getName(), 1, Integer::sum);
+            }
+        }
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        Map<String, Long> timeouts = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> recorded : prints.entrySet()) {
+            JsFileModel.Getter getter = model.findGetter(recorded.getKey());
+            if (getter == null) continue;
+            if (declared.get(getter.getName()) > 1) {
+                result.duplicated.add(getter.getName());
+                continue;
+            }
+            Map<String, Object> print = recorded.getValue();
+            Object locator = print.get("locator");
+            if (locator == null || !LocatorIndex.normalize(getter.getLocator()).equals(LocatorIndex.normalize(locator.toString()))) {
+                result.edited.add(getter.getName());
+                continue;
+            }
+            timeouts.put(getter.getName(), LocatorGenerator.timeoutOf(getter.getLocator()));
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", getter.getName());
+            entry.put("css", print.get("locatorCss"));
+            entry.put("text", print.get("locatorText"));
+            entry.put("print", print);
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) return result;
+
+        Map<String, Map<String, Object>> updated = new LinkedHashMap<>();
+        for (Map<String, Object> checked : engine.repairLocators(entries)) {
+            String name = String.valueOf(checked.get("name"));
+            Object selector = checked.get("selector");
+            if (Boolean.TRUE.equals(checked.get("ok"))) {
+                result.healthy++;
+            } else if (selector instanceof String && !((String) selector).isEmpty() && checked.get("print") instanceof Map) {
+                String css = (String) selector;
+                // Keep the timeout measured when the step was recorded
+                String locator = LocatorGenerator.withTimeout("cy.get('" + LocatorGenerator.escape(css) + "')",
+                    timeouts.getOrDefault(name, 0L));
+                String pomLine = "get " + name + "() { return " + locator + "; }";
+                fileManager.replaceGetter(pageFile, name, pomLine);
+                @SuppressWarnings("unchecked")
+                Map<String, Object> found = (Map<String, Object>) checked.get("print");
+                updated.put(name, FingerprintStore.fingerprint(found, locator, css, null));
+                result.repaired.add(pomLine);
+            } else {
+                result.unresolved.add(name);
+            }
+        }
+        store.putAll(root, className, updated);
+        return result;
+    }
+}
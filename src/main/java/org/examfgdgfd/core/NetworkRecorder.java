@@ -0,0 +1,169 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.config.AppConfig;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers recent XHR and fetch requests seen through CDP Network events, so a capture
+ * can be linked to the requests its click started. Fed from the DevTools event thread; links are
+ * resolved on a timer thread so nobody waits for the link window.
+ */
+public class NetworkRecorder {
+    private static final Set<String> TRACKED_TYPES = Set.of("XHR", "Fetch");
+    private static final int MAX_REMEMBERED = 500;
+
+    /**
+     * One request: method, URL, when it started (epoch ms) and whether it has finished.
+     */
+    public static class Request {
+        private final String method;
+        private final String url;
+        private final long startedAt;
+        private volatile boolean finished;
+        private volatile boolean failed;
+
+        Request(String method, String url, long startedAt) {
+            this.method = method;
+            this.url = url;
+            this.startedAt = startedAt;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+    }
+
+    /**
+     * The requests linked to one click, waiting for them to finish.
+     */
+    private static class Link {
+        final List<Request> requests;
+        final CompletableFuture<List<Request>> result;
+
+        Link(List<Request> requests, CompletableFuture<List<Request>> result) {
+            this.requests = requests;
+            this.result = result;
+        }
+    }
+
+    private final Map<String, Request> byId = new LinkedHashMap<>();
+    private final Deque<String> order = new ArrayDeque<>();
+    // Links whose window has passed but whose requests are still running
+    private final List<Link> links = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "network-link");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Network.requestWillBeSent
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void requestStarted(Map<String, Object> event) {
+        if (!TRACKED_TYPES.contains(event.get("type"))) return;
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        Object wallTime = event.get("wallTime");
+        if (request == null || !(wallTime instanceof Number)) return;
+
+        String id = (String) event.get("requestId");
+        // A redirect reuses the request id; keep the first start time
+        if (byId.containsKey(id)) return;
+        byId.put(id, new Request((String) request.get("method"), (String) request.get("url"),
+            (long) (((Number) wallTime).doubleValue() * 1000)));
+        order.addLast(id);
+        while (order.size() > MAX_REMEMBERED) {
+            byId.remove(order.removeFirst());
+        }
+    }
+
+    /**
+     * Network.loadingFinished or Network.loadingFailed
+     */
+    public synchronized void requestEnded(Map<String, Object> event, boolean failed) {
+        Request request = byId.get((String) event.get("requestId"));
+        if (request == null) return;
+        request.failed = failed;
+        request.finished = true;
+        links.removeIf(link -> complete(link, false));
+    }
+
+    /**
+     * Requests started within the link window after a click, completed once the window has passed and
+     * those requests have finished, or when the response wait runs out. Never blocks the caller.
+     * Requests that never finish (polling, streams) are left out because a cy.wait on them would hang.
+     */
+    public CompletableFuture<List<Request>> linkedTo(long clickedAt) {
+        CompletableFuture<List<Request>> result = new CompletableFuture<>();
+        long windowEnd = clickedAt + AppConfig.NETWORK_LINK_WINDOW_MS;
+        timer.schedule(() -> open(clickedAt, windowEnd, result),
+            Math.max(0, windowEnd - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Complete every open link with what has finished so far.
+     */
+    public synchronized void clear() {
+        for (Link link : links) complete(link, true);
+        links.clear();
+        byId.clear();
+        order.clear();
+    }
+
+    private synchronized void open(long clickedAt, long windowEnd, CompletableFuture<List<Request>> result) {
+        List<Request> linked = new ArrayList<>();
+        for (Request request : byId.values()) {
+            if (request.startedAt >= clickedAt && request.startedAt <= windowEnd) linked.add(request);
+        }
+        Link link = new Link(linked, result);
+        if (complete(link, false)) return;
+        links.add(link);
+        timer.schedule(() -> expire(link),
+            Math.max(0, windowEnd + AppConfig.NETWORK_RESPONSE_WAIT_MS - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void expire(Link link) {
+        if (links.remove(link)) complete(link, true);
+    }
+
+    /**
+     * Complete a link with its finished, successful requests once all of them finished, or now when forced.
+     */
+    private static boolean complete(Link link, boolean force) {
+        List<Request> finished = new ArrayList<>();
+        for (Request request : link.requests) {
+            if (!request.finished && !force) return false;
+            if (request.finished && !request.failed) finished.add(request);
+        }
+        link.result.complete(finished);
+        return true;
+    }
+}
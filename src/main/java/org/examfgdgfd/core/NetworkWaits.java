@@ -0,0 +1,113 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.codegen.RouteShard;
+import org.examfgdgfd.config.AppConfig;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the requests linked to a capture into cy.intercept aliases registered before the step
+ * and cy.wait('@alias') calls after it, so the test waits exactly as long as the backend needs.
+ */
+public class NetworkWaits {
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("^(api|v\\d+)$", Pattern.CASE_INSENSITIVE);
+
+    private final List<String> intercepts = new ArrayList<>();
+    private final List<String> waits = new ArrayList<>();
+
+    private NetworkWaits() {
+    }
+
+    /**
+     * One intercept and wait per distinct method and route pattern, at most NETWORK_MAX_WAITS_PER_STEP.
+     */
+    public static NetworkWaits of(List<NetworkRecorder.Request> requests) {
+        NetworkWaits result = new NetworkWaits();
+        Map<String, String> aliases = new LinkedHashMap<>();
+        for (NetworkRecorder.Request request : requests) {
+            if (aliases.size() >= AppConfig.NETWORK_MAX_WAITS_PER_STEP) break;
+            String pattern = routePattern(request.getUrl());
+            String method = request.getMethod().toUpperCase(Locale.ROOT);
+            String key = method + " " + pattern;
+            if (aliases.containsKey(key)) continue;
+            String alias = alias(method, request.getUrl());
+            aliases.put(key, alias);
+            result.intercepts.add("cy.intercept('" + method + "', '" + pattern + "').as('" + alias + "');");
+            result.waits.add("cy.wait('@" + alias + "');");
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return intercepts.isEmpty();
+    }
+
+    /**
+     * Lines that must run before the step that triggers the requests.
+     */
+    public List<String> getIntercepts() {
+        return intercepts;
+    }
+
+    /**
+     * Lines that go right after the step.
+     */
+    public List<String> getWaits() {
+        return waits;
+    }
+
+    /**
+     * "**" plus the path with ids wildcarded and any query allowed, e.g. https://x/api/users/42?p=1 -> "**&#47;api/users/*"
+     */
+    static String routePattern(String url) {
+        String path;
+        try {
+            path = URI.create(url).getRawPath();
+        } catch (IllegalArgumentException e) {
+            path = url;
+        }
+        if (path == null || path.isEmpty()) path = "/";
+
+        StringBuilder sb = new StringBuilder("**");
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) continue;
+            sb.append('/').append(RouteShard.isIdSegment(segment) ? "*" : segment.replace("'", "\\'"));
+        }
+        if (sb.length() == 2) sb.append('/');
+        // Trailing * also covers a query string, it never matches across '/'
+        if (sb.charAt(sb.length() - 1) != '*') sb.append('*');
+        return sb.toString();
+    }
+
+    /**
+     * Method plus the last meaningful path segments in camel case, e.g. GET /api/v1/users/42 -> getUsers.
+     */
+    static String alias(String method, String url) {
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            path = "";
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String segment : (path == null ? "" : path).split("/")) {
+            if (segment.isEmpty() || RouteShard.isIdSegment(segment) || VERSION_SEGMENT.matcher(segment).matches()) continue;
+            for (String word : segment.split("[^A-Za-z0-9]+")) {
+                if (!word.isEmpty()) words.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        StringBuilder sb = new StringBuilder(method.toLowerCase(Locale.ROOT));
+        for (String word : words.subList(Math.max(0, words.size() - 2), words.size())) {
+            sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        if (words.isEmpty()) sb.append("Root");
+        return sb.toString();
+    }
+}
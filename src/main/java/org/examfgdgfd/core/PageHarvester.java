@@ -0,0 +1,125 @@
+package org.examfgdgfd.core;
+
+import org.examfgdgfd.codegen.FingerprintStore;
+import org.examfgdgfd.validation.InputValidator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Turns a harvested element list into page object getters.
+ * Locators and getter names are generated in page order; it is string work, a pool would only add overhead.
+ */
+public class PageHarvester {
+    private static final int MAX_NAME_LENGTH = 40;
+
+    private final LocatorGenerator locatorGenerator = new LocatorGenerator();
+
+    /**
+     * One generated getter: its name, the locator it returns and the element's fingerprint.
+     */
+    public static class HarvestedGetter {
+        private final String name;
+        private final String locator;
+        private final Map<String, Object> fingerprint;
+
+        HarvestedGetter(String name, String locator, Map<String, Object> fingerprint) {
+            this.name = name;
+            this.locator = locator;
+            this.fingerprint = fingerprint;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLocator() {
+            return locator;
+        }
+
+        public Map<String, Object> getFingerprint() {
+            return fingerprint;
+        }
+
+        public String toPomLine() {
+            return "get " + name + "() { return " + locator + "; }";
+        }
+    }
+
+    /**
+     * @param taken names already used by the target page class, never handed out again
+     */
+    public List<HarvestedGetter> harvest(List<Map<String, Object>> elements, Predicate<String> taken) {
+        List<HarvestedGetter> getters = new ArrayList<>();
+        Map<String, Integer> usedNames = new HashMap<>();
+        Set<String> assigned = new HashSet<>();
+        for (int i = 0; i < elements.size(); i++) {
+            List<LocatorCandidate> candidates = locatorGenerator.generate(elements.get(i));
+            if (candidates.isEmpty()) continue;
+            LocatorCandidate locator = candidates.get(0);
+            String name = uniqueName(baseName(elements.get(i)), usedNames, candidate -> assigned.contains(candidate) || taken.test(candidate));
+            assigned.add(name);
+            getters.add(new HarvestedGetter(name, locator.getCode(),
+                FingerprintStore.fingerprint(elements.get(i), locator.getCode(), locator.getCss(), locator.getText())));
+        }
+        return getters;
+    }
+
+    /**
+     * Readable camelCase name from id, name attribute or visible text, suffixed with the element kind.
+     */
+    private static String baseName(Map<String, Object> data) {
+        String source = firstNonEmpty((String) data.get("id"), (String) data.get("name"), (String) data.get("text"));
+        String tag = (String) data.get("tag");
+        String kind = kindOf(tag, (String) data.get("type"), (String) data.get("role"));
+
+        String words = camelCase(source == null ? "" : source);
+        String name = words.isEmpty() ? kind : words + Character.toUpperCase(kind.charAt(0)) + kind.substring(1);
+        if (!InputValidator.isValidVariableName(name)) {
+            name = "el" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+        return name;
+    }
+
+    private static String kindOf(String tag, String type, String role) {
+        String roleKind = role == null ? "" : role.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+        if (!roleKind.isEmpty()) return roleKind;
+        if ("a".equals(tag)) return "link";
+        if ("input".equals(tag) && type != null && !type.isEmpty()) {
+            return "text".equals(type) ? "input" : type.replaceAll("[^a-zA-Z]", "") + "Input";
+        }
+        return tag == null || tag.isEmpty() ? "element" : tag;
+    }
+
+    private static String camelCase(String source) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : source.split("[^A-Za-z0-9]+")) {
+            if (word.isEmpty()) continue;
+            if (sb.length() + word.length() > MAX_NAME_LENGTH) break;
+            String lower = word.toLowerCase(Locale.ROOT);
+            sb.append(sb.length() == 0 ? lower : Character.toUpperCase(lower.charAt(0)) + lower.substring(1));
+        }
+        return sb.toString();
+    }
+
+    private static String uniqueName(String base, Map<String, Integer> usedNames, Predicate<String> taken) {
+        while (true) {
+            int count = usedNames.merge(base, 1, Integer::sum);
+            String name = count == 1 ? base : base + count;
+            if (!taken.test(name)) return name;
+        }
+    }
+
+    private static String firstNonEmpty(String... values) {
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty()) return value.trim();
+        }
+        return null;
+    }
+}
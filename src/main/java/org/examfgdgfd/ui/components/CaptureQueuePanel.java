@@ -0,0 +1,264 @@
+package org.examfgdgfd.ui.components;
+
+import org.examfgdgfd.core.CaptureDecision;
+import org.examfgdgfd.core.LocatorCandidate;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Captures waiting for a locator and an action, each resolved inline and in any order.
+ * Nothing here blocks: ADD and SKIP only report the choice to the listener.
+ * All methods must be called on the event thread.
+ */
+public class CaptureQueuePanel extends JPanel {
+    private static final Color CARD_BG = new Color(30, 41, 59);
+    private static final Color TEXT = new Color(241, 245, 249);
+    private static final Color MUTED = new Color(148, 163, 184);
+    private static final Color INVALID = new Color(239, 68, 68);
+
+    /**
+     * Receives the user's choice for a queued capture.
+     */
+    public interface Listener {
+        void resolved(long id, CaptureDecision decision);
+
+        void skipped(long id);
+    }
+
+    private final Color accentColor;
+    private final Color primaryColor;
+    private final Map<Long, Item> items = new HashMap<>();
+    private final JPanel list = new JPanel();
+    private final JLabel title = new JLabel();
+    private final JLabel emptyLabel = new JLabel("No captures waiting");
+    private Listener listener;
+
+    public CaptureQueuePanel(Color accentColor, Color primaryColor) {
+        this.accentColor = accentColor;
+        this.primaryColor = primaryColor;
+        setOpaque(false);
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+        setPreferredSize(new Dimension(380, 0));
+
+        title.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        title.setForeground(TEXT);
+        add(title, BorderLayout.NORTH);
+
+        list.setLayout(new BoxLayout(list, BoxLayout.Y_AXIS));
+        list.setBackground(new Color(10, 15, 30));
+        emptyLabel.setFont(new Font("Segoe UI", Font.ITALIC, 11));
+        emptyLabel.setForeground(MUTED);
+        emptyLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        list.add(emptyLabel);
+        list.add(Box.createVerticalGlue());
+
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getViewport().setBackground(new Color(10, 15, 30));
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        add(scrollPane, BorderLayout.CENTER);
+
+        updateTitle();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Queue a capture with its ranked locators, best first.
+     */
+    public void addCapture(long id, String description, List<LocatorCandidate> locators) {
+        Item item = new Item(id, description, locators);
+        items.put(id, item);
+        emptyLabel.setVisible(false);
+        // Keep the glue last so cards stack from the top
+        list.add(item, list.getComponentCount() - 1);
+        list.add(Box.createRigidArea(new Dimension(0, 8)), list.getComponentCount() - 1);
+        updateTitle();
+        list.revalidate();
+        list.repaint();
+    }
+
+    /**
+     * Show that a resolved capture is held until an earlier one is resolved or skipped.
+     */
+    public void markWaiting(long id, String reason) {
+        Item item = items.get(id);
+        if (item != null) item.setStatus(reason, MUTED);
+    }
+
+    public void remove(long id) {
+        Item item = items.remove(id);
+        if (item == null) return;
+        int index = list.getComponentZOrder(item);
+        list.remove(index + 1);
+        list.remove(index);
+        emptyLabel.setVisible(items.isEmpty());
+        updateTitle();
+        list.revalidate();
+        list.repaint();
+    }
+
+    public int getPendingCount() {
+        return items.size();
+    }
+
+    private void updateTitle() {
+        title.setText("[Q] CAPTURE QUEUE" + (items.isEmpty() ? "" : " (" + items.size() + ")"));
+    }
+
+    /**
+     * One queued capture with its choices.
+     */
+    private class Item extends JPanel {
+        private final long id;
+        private final JComboBox<LocatorCandidate> locatorBox;
+        private final JComboBox<CaptureDecision.Action> actionBox = new JComboBox<>(CaptureDecision.Action.values());
+        private final JComboBox<String> waitBox = new JComboBox<>(CaptureDecision.WAITS);
+        private final JCheckBox forceBox = createCheckBox("Force");
+        private final JCheckBox multiBox = createCheckBox("Multiple");
+        private final JTextField valueField = new JTextField();
+        private final JLabel status = new JLabel(" ");
+        private final JButton addButton = createButton("ADD", primaryColor);
+        private final JButton skipButton = createButton("SKIP", new Color(107, 114, 128));
+
+        Item(long id, String description, List<LocatorCandidate> locators) {
+            this.id = id;
+            setBackground(CARD_BG);
+            setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(255, 255, 255, 25)),
+                BorderFactory.createEmptyBorder(8, 8, 8, 8)));
+
+            JLabel header = new JLabel("#" + id + "  " + description);
+            header.setFont(new Font("Segoe UI", Font.BOLD, 11));
+            header.setForeground(accentColor);
+            add(row(header));
+
+            locatorBox = new JComboBox<>(locators.toArray(new LocatorCandidate[0]));
+            locatorBox.setFont(new Font("JetBrains Mono", Font.PLAIN, 11));
+            locatorBox.setToolTipText("Locator, best ranked first");
+            add(row(locatorBox));
+
+            waitBox.setSelectedItem(CaptureDecision.DEFAULT_WAIT);
+            waitBox.setToolTipText("Wait condition before the action");
+            actionBox.addActionListener(e -> updateValueField());
+            add(row(actionBox, waitBox));
+
+            valueField.setFont(new Font("JetBrains Mono", Font.PLAIN, 11));
+            valueField.setToolTipText("Text to type, or the expected tooltip");
+            valueField.addActionListener(e -> submit());
+            add(row(forceBox, multiBox, valueField));
+
+            status.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+            status.setForeground(MUTED);
+            addButton.addActionListener(e -> submit());
+            skipButton.addActionListener(e -> {
+                setControlsEnabled(false);
+                if (listener != null) listener.skipped(id);
+            });
+            JPanel buttons = row(status);
+            buttons.add(Box.createHorizontalGlue());
+            buttons.add(addButton);
+            buttons.add(Box.createRigidArea(new Dimension(6, 0)));
+            buttons.add(skipButton);
+            add(buttons);
+
+            updateValueField();
+        }
+
+        private void submit() {
+            CaptureDecision.Action action = (CaptureDecision.Action) actionBox.getSelectedItem();
+            LocatorCandidate locator = (LocatorCandidate) locatorBox.getSelectedItem();
+            if (locator == null || action == null) return;
+            String value = action.needsValue() ? valueField.getText() : null;
+            if (value != null && value.isEmpty()) {
+                setStatus(action.getLabel() + " needs a value", INVALID);
+                valueField.requestFocusInWindow();
+                return;
+            }
+            setControlsEnabled(false);
+            setStatus("Writing...", MUTED);
+            if (listener != null) {
+                listener.resolved(id, new CaptureDecision(locator, action, (String) waitBox.getSelectedItem(),
+                    forceBox.isSelected(), multiBox.isSelected(), value));
+            }
+        }
+
+        private void updateValueField() {
+            CaptureDecision.Action action = (CaptureDecision.Action) actionBox.getSelectedItem();
+            valueField.setEnabled(addButton.isEnabled() && action != null && action.needsValue());
+        }
+
+        private void setControlsEnabled(boolean enabled) {
+            for (JComponent control : new JComponent[]{locatorBox, actionBox, waitBox, forceBox, multiBox, addButton, skipButton}) {
+                control.setEnabled(enabled);
+            }
+            updateValueField();
+        }
+
+        void setStatus(String text, Color color) {
+            status.setText(text);
+            status.setForeground(color);
+        }
+
+        @Override
+        public Dimension getMaximumSize() {
+            return new Dimension(Integer.MAX_VALUE, getPreferredSize().height);
+        }
+    }
+
+    private static JPanel row(JComponent... components) {
+        JPanel row = new JPanel();
+        row.setOpaque(false);
+        row.setLayout(new BoxLayout(row, BoxLayout.X_AXIS));
+        row.setBorder(BorderFactory.createEmptyBorder(2, 0, 2, 0));
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) row.add(Box.createRigidArea(new Dimension(6, 0)));
+            row.add(components[i]);
+        }
+        row.setAlignmentX(LEFT_ALIGNMENT);
+        return row;
+    }
+
+    private static JCheckBox createCheckBox(String label) {
+        JCheckBox box = new JCheckBox(label);
+        box.setOpaque(false);
+        box.setForeground(TEXT);
+        box.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        box.setFocusPainted(false);
+        return box;
+    }
+
+    private static JButton createButton(String label, Color background) {
+        JButton button = new JButton(label);
+        button.setBackground(background);
+        button.setForeground(TEXT);
+        button.setFont(new Font("Segoe UI", Font.BOLD, 10));
+        button.setBorder(BorderFactory.createEmptyBorder(6, 12, 6, 12));
+        button.setFocusPainted(false);
+        return button;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Same glass background and gradient border as the console
+        g2d.setColor(new Color(255, 255, 255, 5));
+        g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
+
+        GradientPaint gp = new GradientPaint(0, 0, primaryColor, getWidth(), getHeight(), accentColor);
+        g2d.setPaint(gp);
+        g2d.setStroke(new BasicStroke(1.5f));
+        g2d.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 15, 15);
+    }
+}
@@ -1,15 +1,28 @@
 package org.examfgdgfd.ui.components;
 
+import org.examfgdgfd.config.AppConfig;
+
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultCaret;
 import java.awt.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Console Panel with gradient border and glassmorphism.
+ * Safe to append from any thread: text is queued and written in one update per frame, and the
+ * document keeps only the last CONSOLE_MAX_LINES lines, so memory and repaint cost stay bounded.
  */
 public class ConsolePanel extends JPanel {
     private Color accentColor;
     private Color primaryColor;
     private JTextArea console;
+    private JScrollPane scrollPane;
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Timer flushTimer = new Timer(AppConfig.CONSOLE_FLUSH_MS, e -> flush());
 
     public ConsolePanel(Color accentColor, Color primaryColor) {
         this.accentColor = accentColor;
@@ -17,6 +30,7 @@ public class ConsolePanel extends JPanel {
         setOpaque(false);
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+        flushTimer.setRepeats(false);
 
         initConsole();
     }
@@ -35,8 +49,10 @@ public class ConsolePanel extends JPanel {
         console.setLineWrap(true);
         console.setWrapStyleWord(true);
         console.setEditable(false);
+        // The caret is moved once per flush, and only while following the output
+        ((DefaultCaret) console.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
 
-        JScrollPane scrollPane = new JScrollPane(console);
+        scrollPane = new JScrollPane(console);
         scrollPane.setBackground(new Color(10, 15, 30));
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.getViewport().setBackground(new Color(10, 15, 30));
@@ -45,16 +61,56 @@ public class ConsolePanel extends JPanel {
     }
 
     public void appendText(String text) {
-        console.append(text);
-        console.setCaretPosition(console.getDocument().getLength());
+        if (text == null || text.isEmpty()) return;
+        pending.add(text);
+        if (flushScheduled.compareAndSet(false, true)) flushTimer.start();
     }
 
+    /**
+     * Must be called on the event thread.
+     */
     public void clearConsole() {
+        pending.clear();
         console.setText("");
     }
 
-    public JTextArea getConsole() {
-        return console;
+    /**
+     * Write everything queued since the last frame, then drop the oldest lines past the limit.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        StringBuilder batch = new StringBuilder();
+        String text;
+        while ((text = pending.poll()) != null) batch.append(text);
+        if (batch.length() == 0) return;
+
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        boolean following = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - console.getFont().getSize();
+
+        console.append(tail(batch, AppConfig.CONSOLE_MAX_LINES));
+        // Trim in chunks so a busy console does not shift the document on every frame
+        int excess = console.getLineCount() - AppConfig.CONSOLE_MAX_LINES;
+        if (excess > AppConfig.CONSOLE_MAX_LINES / 10) {
+            try {
+                console.getDocument().remove(0, console.getLineStartOffset(excess));
+            } catch (BadLocationException e) {
+                console.setText("");
+            }
+        }
+        if (following) console.setCaretPosition(console.getDocument().getLength());
+    }
+
+    /**
+     * The last maxLines lines of a burst, so text that would be trimmed at once is never inserted.
+     */
+    private static String tail(StringBuilder batch, int maxLines) {
+        int lines = 0;
+        for (int i = batch.length() - 1; i >= 0; i--) {
+            if (batch.charAt(i) == '\n' && i < batch.length() - 1 && ++lines == maxLines) {
+                return batch.substring(i + 1);
+            }
+        }
+        return batch.toString();
     }
 
     @Override
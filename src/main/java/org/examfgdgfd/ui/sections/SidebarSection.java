@@ -16,6 +16,12 @@ public class SidebarSection extends JPanel {
     public ModernButton btnBrowse;
     public ModernButton btnLaunch;
     public ModernButton btnPlay;
+    public ModernButton btnHarvest;
+    public ModernButton btnBalance;
+    public ModernButton btnRepair;
+    public JCheckBox chkNetworkWaits;
+    public JCheckBox chkProfiles;
+    public JCheckBox chkQuickPick;
 
     private static final Color PRIMARY = new Color(99, 102, 241);
     private static final Color SECONDARY = new Color(139, 92, 246);
@@ -55,21 +61,41 @@ public class SidebarSection extends JPanel {
         folderInput.setText("My_Automation_Folder");
         card3.add(folderInput);
 
+        // Card 4: Capture Options
+        GlassmorphicCard card4 = new GlassmorphicCard("[O] CAPTURE OPTIONS", TEXT_PRIMARY);
+        chkNetworkWaits = createOption("Let clicks through & wait on network");
+        card4.add(chkNetworkWaits);
+        chkProfiles = createOption("Auto-resolve with capture profiles");
+        card4.add(chkProfiles);
+        chkQuickPick = createOption("Pick locator & action in the page");
+        card4.add(chkQuickPick);
+
         // Add cards to sidebar
         add(card1);
         add(Box.createRigidArea(new Dimension(0, 12)));
         add(card2);
         add(Box.createRigidArea(new Dimension(0, 12)));
         add(card3);
+        add(Box.createRigidArea(new Dimension(0, 12)));
+        add(card4);
         add(Box.createRigidArea(new Dimension(0, 20)));
 
         // Action Buttons
         btnLaunch = new ModernButton("[*] LAUNCH BROWSER", ACCENT, SECONDARY);
         btnPlay = new ModernButton("[+] START SPY MODE", PRIMARY, ACCENT);
+        btnHarvest = new ModernButton("[#] HARVEST PAGE", SECONDARY, PRIMARY);
+        btnBalance = new ModernButton("[=] BALANCE SPECS", ACCENT, PRIMARY);
+        btnRepair = new ModernButton("[~] REPAIR LOCATORS", SECONDARY, ACCENT);
 
         add(btnLaunch);
         add(Box.createRigidArea(new Dimension(0, 10)));
         add(btnPlay);
+        add(Box.createRigidArea(new Dimension(0, 10)));
+        add(btnHarvest);
+        add(Box.createRigidArea(new Dimension(0, 10)));
+        add(btnBalance);
+        add(Box.createRigidArea(new Dimension(0, 10)));
+        add(btnRepair);
         add(Box.createVerticalGlue());
 
         // Browse button handler
@@ -92,6 +118,15 @@ public class SidebarSection extends JPanel {
         });
     }
 
+    private JCheckBox createOption(String label) {
+        JCheckBox option = new JCheckBox(label);
+        option.setOpaque(false);
+        option.setForeground(TEXT_PRIMARY);
+        option.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        option.setFocusPainted(false);
+        return option;
+    }
+
     public String getProjectPath() {
         return pathInput.getText();
     }
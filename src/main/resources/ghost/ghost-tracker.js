@@ -0,0 +1,789 @@
+/*
+ * Ghost Tester page tracker.
+ * GhostScript appends the config argument, so this file must stay a single function expression.
+ * It is registered for every new document and frame, and must be safe to run twice.
+ */
+(function (config) {
+    if (window.ghostTester) return;
+
+    // Java scores, repairs and replays captures against the top document: seq numbers, refs and
+    // cy.get() all address it, and every frame would count its own seq from 0. A frame only reports
+    // that a click in it was not captured
+    if (window !== window.top) {
+        window.ghostTester = { frame: true };
+        document.addEventListener('click', function (e) {
+            var binding = window[config.binding];
+            if (typeof binding !== 'function') return;
+            binding(JSON.stringify({ kind: 'frame', tag: (e.target.tagName || '').toLowerCase(), url: location.href }));
+        }, true);
+        return;
+    }
+
+    var gt = window.ghostTester = {
+        queue: [],
+        capacity: config.capacity,
+        seq: 0,
+        dropped: 0,
+        refs: {},
+        refOrder: [],
+        // Unique selectors already computed for nodes of this document, ancestors included
+        selectorMemo: new WeakMap(),
+        // Runtime switches from Java; new documents receive the current ones in config.settings
+        settings: config.settings || {},
+        // Open settle probe of the last capture, or of the page load
+        probe: null,
+        // Fingerprint and candidate scores computed while the pointer rests on an element,
+        // valid while domVersion is unchanged
+        hoverCache: new WeakMap(),
+        hoverTimer: null,
+        domVersion: 0,
+        // Open quick-pick overlay, and a settle record held back until its capture is sent
+        quickPick: null,
+        heldSettle: null,
+
+        configure: function (settings) {
+            for (var key in settings) {
+                if (Object.prototype.hasOwnProperty.call(settings, key)) this.settings[key] = settings[key];
+            }
+        },
+
+        describe: function (el) {
+            var data = this.print(el);
+            data.selector = this.uniqueSelector(el) || '';
+            return data;
+        },
+
+        // Compact fingerprint whose cost is bounded by the config limits, not by the subtree size.
+        // Reads no layout: text comes from the first few text nodes instead of innerText.
+        print: function (el) {
+            var attrs = {};
+            var dataKeys = [];
+            var attrCount = 0;
+            for (var i = 0; i < el.attributes.length; i++) {
+                var attr = el.attributes[i];
+                if (attr.name.indexOf('data-') === 0) dataKeys.push(attr.name.substring(5));
+                if (attr.name === 'style' || attrCount >= config.attributeLimit) continue;
+                attrs[attr.name] = attr.value.substring(0, config.attributeValueLimit);
+                attrCount++;
+            }
+
+            return {
+                id: el.id || '',
+                text: this.leadingText(el),
+                tag: el.tagName.toLowerCase(),
+                class: (typeof el.className === 'string') ? el.className : '',
+                type: el.type || '',
+                name: el.getAttribute('name') || '',
+                role: el.getAttribute('role') || '',
+                value: this.valueOf(el),
+                attrs: attrs,
+                dataKeys: dataKeys,
+                ancestors: this.ancestorChain(el),
+                position: this.positionOf(el)
+            };
+        },
+
+        // Current form value, never a password
+        valueOf: function (el) {
+            return (typeof el.value === 'string' && el.type !== 'password') ? el.value.substring(0, config.textLimit) : '';
+        },
+
+        // URL of the page the user is on: the top document's when reachable, this frame's otherwise
+        pageUrl: function () {
+            try {
+                return window.top.location.href;
+            } catch (err) {
+                return location.href;
+            }
+        },
+
+        // Whitespace-normalized text from at most textNodeLimit text nodes, cut at textLimit chars
+        leadingText: function (el) {
+            var walker = document.createTreeWalker(el, NodeFilter.SHOW_TEXT, null);
+            var text = '';
+            var visited = 0;
+            var node;
+            while ((node = walker.nextNode()) && visited < config.textNodeLimit && text.length < config.textLimit) {
+                visited++;
+                var chunk = node.nodeValue.replace(/\s+/g, ' ');
+                if (chunk.trim() === '') continue;
+                text += chunk;
+            }
+            return text.replace(/\s+/g, ' ').trim().substring(0, config.textLimit);
+        },
+
+        // Short descriptors of the nearest ancestors, closest first
+        ancestorChain: function (el) {
+            var chain = [];
+            for (var p = el.parentElement; p && p !== document.body && chain.length < config.ancestorLimit; p = p.parentElement) {
+                var part = p.tagName.toLowerCase();
+                if (p.id) part += '#' + p.id;
+                var classes = (typeof p.className === 'string') ? p.className.trim().split(/\s+/) : [];
+                for (var c = 0; c < classes.length; c++) {
+                    if (this.isStableClass(classes[c])) { part += '.' + classes[c]; break; }
+                }
+                chain.push(part);
+            }
+            return chain;
+        },
+
+        // 1-based index among siblings with the same tag
+        positionOf: function (el) {
+            var index = 1;
+            for (var sib = el.previousElementSibling; sib; sib = sib.previousElementSibling) {
+                if (sib.tagName === el.tagName) index++;
+            }
+            return index;
+        },
+
+        esc: function (value) {
+            return (window.CSS && CSS.escape) ? CSS.escape(value) : String(value).replace(/([^\w-])/g, '\\$1');
+        },
+
+        isUnique: function (selector, el) {
+            try {
+                var matches = document.querySelectorAll(selector);
+                return matches.length === 1 && matches[0] === el;
+            } catch (err) {
+                return false;
+            }
+        },
+
+        // Skip hashed, generated and state classes that change between builds or interactions
+        isStableClass: function (cls) {
+            return cls.length > 1 && cls.length <= 40 &&
+                /^[a-zA-Z_-][\w-]*$/.test(cls) &&
+                !/\d{3,}/.test(cls) &&
+                !/^(css|sc|jsx|emotion|svelte)-/.test(cls) &&
+                !/__[a-zA-Z0-9]{5,}$/.test(cls) &&
+                !/^(is-|has-)?(active|hover|focus|focused|selected|open|opened|disabled|visible|hidden|checked)$/.test(cls);
+        },
+
+        // Selectors for the node on its own, most stable first:
+        // test ids, id, aria-label, name, then stable classes
+        localSelectors: function (el) {
+            var tag = el.tagName.toLowerCase();
+            var out = [];
+            for (var i = 0; i < config.testAttributes.length; i++) {
+                var attr = config.testAttributes[i];
+                var value = el.getAttribute(attr);
+                if (value) out.push('[' + attr + '="' + this.esc(value) + '"]');
+            }
+            if (el.id && !/\d{3,}/.test(el.id)) out.push('#' + this.esc(el.id));
+            var aria = el.getAttribute('aria-label');
+            if (aria) out.push(tag + '[aria-label="' + this.esc(aria) + '"]');
+            var name = el.getAttribute('name');
+            if (name) out.push(tag + '[name="' + this.esc(name) + '"]');
+            var classes = (typeof el.className === 'string') ? el.className.trim().split(/\s+/) : [];
+            var stable = [];
+            for (var c = 0; c < classes.length; c++) {
+                if (this.isStableClass(classes[c])) stable.push('.' + this.esc(classes[c]));
+            }
+            for (var s = 0; s < stable.length; s++) out.push(tag + stable[s]);
+            if (stable.length > 1) out.push(tag + stable[0] + stable[1]);
+            return out;
+        },
+
+        nthOfType: function (el) {
+            return el.tagName.toLowerCase() + ':nth-of-type(' + this.positionOf(el) + ')';
+        },
+
+        // Shortest unique selector: the node's own selector if unique, otherwise anchored
+        // under the memoized selector of its parent, falling back to nth-of-type
+        // With a deadline (epoch ms) gives up once it passes and returns null; nothing partial is memoized
+        uniqueSelector: function (el, until) {
+            if (!el || el.nodeType !== 1) return null;
+            if (el === document.documentElement) return 'html';
+            if (el === document.body) return 'body';
+
+            var memo = this.selectorMemo.get(el);
+            if (memo && this.isUnique(memo, el)) return memo;
+
+            var locals = this.localSelectors(el);
+            var selector = null;
+            for (var i = 0; i < locals.length && !selector; i++) {
+                if (until && Date.now() >= until) return null;
+                if (this.isUnique(locals[i], el)) selector = locals[i];
+            }
+
+            if (!selector && el.parentElement) {
+                var parentSelector = this.uniqueSelector(el.parentElement, until);
+                if (!parentSelector) return null;
+                var relative = locals.concat([el.tagName.toLowerCase()]);
+                for (var r = 0; r < relative.length && !selector; r++) {
+                    if (until && Date.now() >= until) return null;
+                    if (this.isUnique(parentSelector + ' > ' + relative[r], el)) {
+                        selector = parentSelector + ' > ' + relative[r];
+                    }
+                }
+                if (!selector) selector = parentSelector + ' > ' + this.nthOfType(el);
+            }
+
+            if (selector) this.selectorMemo.set(el, selector);
+            return selector;
+        },
+
+        // Push through the DevTools binding when present, otherwise queue for the poller
+        publish: function (data) {
+            var binding = window[config.binding];
+            if (typeof binding === 'function') {
+                binding(JSON.stringify(data));
+                return;
+            }
+            this.queue.push(data);
+            if (this.queue.length > this.capacity) {
+                this.queue.shift();
+                this.dropped++;
+            }
+        },
+
+        // Keep the captured node reachable by seq so later calls can score locators against it
+        remember: function (seq, el) {
+            this.refs[seq] = el;
+            this.refOrder.push(seq);
+            if (this.refOrder.length > this.capacity) {
+                delete this.refs[this.refOrder.shift()];
+            }
+        },
+
+        // Watch DOM mutations after a page load or a pass-through capture until the page stays quiet
+        // for settleQuietMs, then report how long it kept changing as a settle record for that seq
+        watchSettle: function (seq, startedAt) {
+            this.endSettle();
+            if (typeof MutationObserver !== 'function') return;
+            var gt = this;
+            var probe = { seq: seq, startedAt: startedAt, last: startedAt, timer: null };
+            probe.observer = new MutationObserver(function (records) {
+                if (gt.isForeign(records)) probe.last = Date.now();
+            });
+            probe.observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });
+            var check = function () {
+                var now = Date.now();
+                if (now - probe.last >= config.settleQuietMs || now - probe.startedAt >= config.settleMaxMs) {
+                    gt.endSettle();
+                } else {
+                    probe.timer = setTimeout(check, probe.last + config.settleQuietMs - now);
+                }
+            };
+            probe.timer = setTimeout(check, config.settleQuietMs);
+            this.probe = probe;
+        },
+
+        // Report the open probe with what it measured so far
+        endSettle: function () {
+            var probe = this.probe;
+            if (!probe) return;
+            this.probe = null;
+            clearTimeout(probe.timer);
+            probe.observer.disconnect();
+            var record = {
+                kind: 'settle',
+                seq: probe.seq,
+                settleMs: Math.max(0, Math.min(probe.last - probe.startedAt, config.settleMaxMs))
+            };
+            // Java applies a settle time to the next capture, so it must not overtake the one being picked
+            if (this.quickPick) {
+                this.heldSettle = record;
+            } else {
+                this.publish(record);
+            }
+        },
+
+        isOwn: function (node) {
+            return !!node && node.nodeType === 1 && node.hasAttribute('data-ghost-tester');
+        },
+
+        // Whether mutations come from the page rather than from showing or hiding the overlay
+        isForeign: function (records) {
+            for (var i = 0; i < records.length; i++) {
+                var r = records[i];
+                if (r.type !== 'childList') return true;
+                var nodes = Array.prototype.slice.call(r.addedNodes).concat(Array.prototype.slice.call(r.removedNodes));
+                for (var n = 0; n < nodes.length; n++) {
+                    if (!this.isOwn(nodes[n])) return true;
+                }
+            }
+            return false;
+        },
+
+        isVisible: function (el) {
+            return !!el && el.getClientRects().length > 0;
+        },
+
+        // Elements a candidate resolves to: css alone, the deepest nodes containing text, or both
+        resolve: function (css, text) {
+            var nodes;
+            try {
+                nodes = document.querySelectorAll(css || '*');
+            } catch (err) {
+                return null;
+            }
+            if (!text) return Array.prototype.slice.call(nodes);
+            var hits = [];
+            for (var i = 0; i < nodes.length; i++) {
+                var node = nodes[i];
+                if ((node.textContent || '').indexOf(text) < 0) continue;
+                if (css) {
+                    hits.push(node);
+                    continue;
+                }
+                var deeper = false;
+                for (var c = node.firstElementChild; c; c = c.nextElementSibling) {
+                    if ((c.textContent || '').indexOf(text) >= 0) { deeper = true; break; }
+                }
+                if (!deeper) hits.push(node);
+            }
+            return hits;
+        },
+
+        // Match count, first-match identity and visibility for every candidate in one call
+        score: function (seq, candidates) {
+            var el = this.refs[seq];
+            var out = [];
+            for (var i = 0; i < candidates.length; i++) {
+                var hits = this.resolve(candidates[i].css, candidates[i].text);
+                if (hits === null) {
+                    out.push({ count: -1, first: false, visible: false });
+                    continue;
+                }
+                var first = hits.length > 0 ? hits[0] : null;
+                out.push({
+                    count: hits.length,
+                    first: !!el && !!first && (first === el || first.contains(el)),
+                    visible: this.isVisible(first)
+                });
+            }
+            return { known: !!el, scores: out };
+        },
+
+        // The css/text pairs LocatorGenerator builds from a fingerprint, in the same order
+        candidatesFor: function (desc) {
+            var out = [];
+            var text = desc.text && desc.text.length < 50 ? desc.text : '';
+            var firstClass = desc.class.trim() ? desc.class.trim().split(/\s+/)[0] : '';
+            if (desc.selector) out.push({ css: desc.selector, text: null });
+            if (desc.id && '#' + desc.id !== desc.selector) out.push({ css: '#' + desc.id, text: null });
+            if (firstClass) out.push({ css: '.' + firstClass, text: null });
+            if (desc.tag) out.push({ css: desc.tag, text: null });
+            if (desc.type) out.push({ css: '[type="' + desc.type + '"]', text: null });
+            if (text) out.push({ css: null, text: text });
+            if (desc.tag && text) out.push({ css: desc.tag, text: text });
+            if (firstClass && desc.tag) out.push({ css: desc.tag + ' .' + firstClass, text: null });
+            return out;
+        },
+
+        // Describe and score the element under the pointer ahead of the click
+        precompute: function (el) {
+            if (!el || el.nodeType !== 1 || el === document.documentElement || el === document.body) return;
+            var cached = this.hoverCache.get(el);
+            if (cached && cached.version === this.domVersion) return;
+            // Hovering sweeps over many elements, so selector and scores share one time budget. Only css
+            // candidates are scored; text candidates walk every node's textContent and wait for the click
+            var budget = { count: config.hoverScoreLimit, until: Date.now() + config.hoverScoreBudgetMs };
+            var selector = this.uniqueSelector(el, budget.until);
+            // Out of time: nothing is cached, the click describes the element itself
+            if (!selector) return;
+            var desc = this.print(el);
+            desc.selector = selector;
+            this.hoverCache.set(el, { version: this.domVersion, desc: desc, scores: this.scoreCandidates(el, desc, budget) });
+        },
+
+        // Score of the candidates for a fingerprint, keyed by its css and text. Known scores are reused;
+        // with a budget, text candidates are skipped and scoring stops once the count or deadline is reached
+        scoreCandidates: function (el, desc, budget, known) {
+            var candidates = this.candidatesFor(desc);
+            var reuse = {};
+            for (var k = 0; known && k < known.length; k++) {
+                reuse[(known[k].css || '') + '|' + (known[k].text || '')] = known[k];
+            }
+            var scores = [];
+            for (var i = 0; i < candidates.length; i++) {
+                var seen = reuse[(candidates[i].css || '') + '|' + (candidates[i].text || '')];
+                if (seen) {
+                    scores.push(seen);
+                    continue;
+                }
+                if (budget) {
+                    if (candidates[i].text) continue;
+                    if (scores.length >= budget.count || Date.now() >= budget.until) break;
+                }
+                var hits = this.resolve(candidates[i].css, candidates[i].text);
+                var first = hits && hits.length > 0 ? hits[0] : null;
+                scores.push({
+                    css: candidates[i].css,
+                    text: candidates[i].text,
+                    count: hits === null ? -1 : hits.length,
+                    first: !!first && (first === el || first.contains(el)),
+                    visible: this.isVisible(first)
+                });
+            }
+            return scores;
+        },
+
+        // Same order as LocatorGenerator.rank: unique on target, on target, the rest; visible first
+        rankScores: function (scores) {
+            var rank = function (s) { return s.count === 1 && s.first ? 0 : (s.first ? 1 : 2); };
+            var usable = [];
+            for (var i = 0; i < scores.length; i++) {
+                if (scores[i].count > 0) usable.push(scores[i]);
+            }
+            usable.sort(function (a, b) {
+                return (rank(a) - rank(b)) || ((a.visible ? 0 : 1) - (b.visible ? 0 : 1)) || (a.count - b.count);
+            });
+            return usable;
+        },
+
+        locatorLabel: function (s) {
+            if (s.css && s.text) return "cy.get('" + s.css + "').contains('" + s.text + "')";
+            if (s.text) return "cy.contains('" + s.text + "')";
+            return "cy.get('" + s.css + "')";
+        },
+
+        // Keyboard overlay next to the clicked element: digits or arrows pick the locator, letters the
+        // action, e cycles the wait, Enter sends the decision with the capture, Esc sends it undecided.
+        // Rendered in a closed shadow root so page styles cannot reach it
+        openQuickPick: function (el, data) {
+            this.closeQuickPick(false);
+            // A hover result covers the cheap candidates only, the rest are scored now
+            data.scores = this.scoreCandidates(el, data, null, data.scores);
+            var locators = this.rankScores(data.scores).slice(0, 9);
+            if (locators.length === 0 || !document.body) {
+                this.publish(data);
+                return;
+            }
+
+            var gt = this;
+            var typing = data.tag === 'textarea' || (data.tag === 'input' && !/^(submit|button|checkbox|radio|reset|image)$/.test(data.type));
+            var pick = {
+                data: data,
+                locators: locators,
+                locator: 0,
+                action: typing ? 'Type' : 'Click',
+                wait: Math.max(0, config.waits.indexOf('be.visible')),
+                rows: [],
+                actions: {}
+            };
+            var host = document.createElement('div');
+            host.setAttribute('data-ghost-tester', 'quick-pick');
+            var rect = el.getBoundingClientRect();
+            var top = rect.bottom + 6 + 240 > window.innerHeight ? Math.max(0, rect.top - 246) : rect.bottom + 6;
+            host.style.cssText = 'position:fixed;z-index:2147483647;top:' + top + 'px;left:' +
+                Math.max(0, Math.min(rect.left, window.innerWidth - 380)) + 'px;';
+            var root = host.attachShadow({ mode: 'closed' });
+            var node = function (tag, cls, text, parent) {
+                var n = document.createElement(tag);
+                if (cls) n.className = cls;
+                if (text) n.textContent = text;
+                (parent || root).appendChild(n);
+                return n;
+            };
+            node('style', null, '.box{font:12px/1.5 monospace;background:#0f172a;color:#f1f5f9;border:1px solid #6366f1;' +
+                'border-radius:8px;padding:8px;width:360px;box-shadow:0 8px 24px rgba(0,0,0,.5)}' +
+                '.row{padding:1px 4px;border-radius:4px;white-space:nowrap;overflow:hidden;text-overflow:ellipsis;cursor:pointer}' +
+                '.on{background:#6366f1}.muted{color:#94a3b8}.bar span{margin-right:8px}b{color:#06b6d4}.on b{color:#f1f5f9}' +
+                'input{width:100%;box-sizing:border-box;margin-top:4px;background:#1e293b;color:#f1f5f9;border:1px solid #475569;' +
+                'border-radius:4px;padding:3px}.bad{border-color:#ef4444}');
+            var box = node('div', 'box');
+            for (var i = 0; i < locators.length; i++) {
+                var row = node('div', 'row', null, box);
+                node('b', null, (i + 1) + ' ', row);
+                row.appendChild(document.createTextNode(this.locatorLabel(locators[i]) + (locators[i].count > 1 ? '  (' + locators[i].count + ' matches)' : '')));
+                row.addEventListener('click', (function (index) {
+                    return function () { pick.locator = index; gt.updateQuickPick(); };
+                })(i));
+                pick.rows.push(row);
+            }
+            var bar = node('div', 'bar', null, box);
+            for (var key in config.quickActions) {
+                var span = node('span', null, null, bar);
+                node('b', null, key + ' ', span);
+                span.appendChild(document.createTextNode(config.quickActions[key]));
+                pick.actions[config.quickActions[key]] = span;
+            }
+            pick.waitLabel = node('div', 'muted', null, box);
+            pick.input = node('input', null, null, box);
+            pick.input.value = data.value || '';
+            pick.input.placeholder = 'Text to type';
+            // Typed text must reach the field but not the page's own key handlers
+            pick.input.addEventListener('keydown', function (e) { e.stopPropagation(); });
+            node('div', 'muted', 'Enter confirm, Esc send to queue', box);
+
+            pick.host = host;
+            this.quickPick = pick;
+            document.body.appendChild(host);
+            this.updateQuickPick();
+        },
+
+        updateQuickPick: function () {
+            var pick = this.quickPick;
+            for (var i = 0; i < pick.rows.length; i++) {
+                pick.rows[i].className = 'row' + (i === pick.locator ? ' on' : '');
+            }
+            for (var label in pick.actions) {
+                pick.actions[label].className = label === pick.action ? 'on' : '';
+            }
+            pick.waitLabel.textContent = 'e  wait: ' + config.waits[pick.wait];
+            var typing = pick.action === 'Type';
+            pick.input.style.display = typing ? 'block' : 'none';
+            if (typing) {
+                pick.input.focus();
+            } else {
+                pick.input.blur();
+            }
+        },
+
+        quickPickKey: function (e) {
+            var pick = this.quickPick;
+            if (!pick) return;
+            var typing = pick.action === 'Type';
+            if (e.key === 'Escape') {
+                this.closeQuickPick(false);
+            } else if (e.key === 'Enter') {
+                if (typing && pick.input.value === '') {
+                    pick.input.className = 'bad';
+                } else {
+                    this.closeQuickPick(true);
+                }
+            } else if (e.key === 'ArrowDown' || e.key === 'ArrowUp') {
+                var step = e.key === 'ArrowDown' ? 1 : pick.locators.length - 1;
+                pick.locator = (pick.locator + step) % pick.locators.length;
+                this.updateQuickPick();
+            } else if (typing && !e.altKey) {
+                // Everything else is text for the value field; Alt+key still switches
+                return;
+            } else if (/^[1-9]$/.test(e.key) && Number(e.key) <= pick.locators.length) {
+                pick.locator = Number(e.key) - 1;
+                this.updateQuickPick();
+            } else if (e.key === 'e') {
+                pick.wait = (pick.wait + 1) % config.waits.length;
+                this.updateQuickPick();
+            } else if (config.quickActions[e.key]) {
+                pick.action = config.quickActions[e.key];
+                this.updateQuickPick();
+            } else {
+                return;
+            }
+            e.preventDefault();
+            e.stopPropagation();
+        },
+
+        // Send the capture, with the decision when confirmed, then any settle record held for it
+        closeQuickPick: function (confirmed) {
+            var pick = this.quickPick;
+            if (!pick) return;
+            this.quickPick = null;
+            if (pick.host.parentNode) pick.host.parentNode.removeChild(pick.host);
+            var data = pick.data;
+            if (confirmed) {
+                var locator = pick.locators[pick.locator];
+                data.decision = {
+                    css: locator.css,
+                    text: locator.text,
+                    action: pick.action,
+                    wait: config.waits[pick.wait],
+                    value: pick.action === 'Type' ? pick.input.value : null
+                };
+            }
+            this.publish(data);
+            if (this.heldSettle) {
+                this.publish(this.heldSettle);
+                this.heldSettle = null;
+            }
+        },
+
+        hoverHandler: function (e) {
+            var gt = this;
+            var target = e.target;
+            if (this.isOwn(target)) return;
+            clearTimeout(this.hoverTimer);
+            this.hoverTimer = setTimeout(function () { gt.precompute(target); }, config.hoverDebounceMs);
+        },
+
+        // Every visible interactive element on the page, described like a capture
+        harvest: function (limit) {
+            var nodes = document.querySelectorAll(config.interactiveSelector);
+            var result = [];
+            for (var i = 0; i < nodes.length && result.length < limit; i++) {
+                var el = nodes[i];
+                if (el.getClientRects().length === 0) continue;
+                result.push(this.describe(el));
+            }
+            return result;
+        },
+
+        // Weighted tokens of a fingerprint: test attributes and id say the most, then accessible
+        // names, then text words, classes and the element kind, with the surroundings last
+        tokens: function (print) {
+            var out = {};
+            var add = function (token, weight) {
+                if (token && (out[token] || 0) < weight) out[token] = weight;
+            };
+            var attrs = print.attrs || {};
+            for (var name in attrs) {
+                if (!Object.prototype.hasOwnProperty.call(attrs, name) || name === 'class' || name === 'id') continue;
+                var strong = config.testAttributes.indexOf(name) >= 0;
+                var named = /^(aria-label|name|placeholder|title|alt|href|for)$/.test(name);
+                add('@' + name + '=' + attrs[name], strong ? 5 : (named ? 2 : 1));
+            }
+            if (print.id && !/\d{3,}/.test(print.id)) add('#' + print.id, 4);
+            var words = (print.text || '').toLowerCase().split(/[^\w]+/);
+            for (var w = 0, used = 0; w < words.length && used < config.repairTextWords; w++) {
+                if (words[w].length > 1) { add('w:' + words[w], 1); used++; }
+            }
+            var classes = (print['class'] || '').trim().split(/\s+/);
+            for (var c = 0; c < classes.length; c++) {
+                if (this.isStableClass(classes[c])) add('.' + classes[c], 1);
+            }
+            add('<' + print.tag, 1);
+            if (print.type) add('type:' + print.type, 1);
+            if (print.role) add('role:' + print.role, 1);
+            var ancestors = print.ancestors || [];
+            for (var a = 0; a < ancestors.length; a++) add('^' + ancestors[a], a === 0 ? 1 : 0.5);
+            add(':' + print.tag + print.position, 0.5);
+            return out;
+        },
+
+        // Re-find recorded elements whose locator no longer resolves to exactly one node, in one pass.
+        // Page elements are tokenized once into an inverted index; each broken entry is scored by the
+        // idf-weighted share of its tokens a candidate still has. Weak or ambiguous winners are not used.
+        // Whether one of the first limit matches still looks like the fingerprinted element
+        recognizes: function (matches, print, limit) {
+            if (matches.length === 0) return false;
+            if (!print) return true;
+            var wanted = this.tokens(print);
+            var total = 0;
+            for (var t in wanted) total += wanted[t];
+            if (total === 0) return true;
+            for (var m = 0; m < matches.length && m < limit; m++) {
+                var own = this.tokens(this.print(matches[m]));
+                var kept = 0;
+                for (var k in wanted) if (own[k]) kept += wanted[k];
+                if (kept / total >= config.repairMinScore) return true;
+            }
+            return false;
+        },
+
+        repair: function (entries, limit) {
+            var results = [];
+            var broken = [];
+            var tags = {};
+            for (var i = 0; i < entries.length; i++) {
+                var entry = entries[i];
+                var found = this.resolve(entry.css, entry.text);
+                // Non-unique text locators and collection getters are fine while the recorded element is among the matches
+                if (found && this.recognizes(found, entry.print, limit)) {
+                    results.push({name: entry.name, ok: true});
+                } else {
+                    broken.push(entry);
+                    if (entry.print && entry.print.tag) tags[entry.print.tag] = true;
+                }
+            }
+            if (broken.length === 0) return results;
+
+            var nodes = [];
+            var seen = new Set();
+            var collect = function (list) {
+                for (var n = 0; n < list.length && nodes.length < limit; n++) {
+                    if (seen.has(list[n]) || gt.isOwn(list[n])) continue;
+                    seen.add(list[n]);
+                    nodes.push(list[n]);
+                }
+            };
+            collect(document.querySelectorAll(config.interactiveSelector));
+            for (var tag in tags) collect(document.getElementsByTagName(tag));
+
+            var postings = {};
+            for (var k = 0; k < nodes.length; k++) {
+                var own = this.tokens(this.print(nodes[k]));
+                for (var token in own) (postings[token] || (postings[token] = [])).push(k);
+            }
+
+            for (var b = 0; b < broken.length; b++) {
+                var wanted = this.tokens(broken[b].print || {tag: ''});
+                var scores = new Float64Array(nodes.length);
+                var total = 0;
+                for (var t in wanted) {
+                    var hits = postings[t] || [];
+                    var weight = wanted[t] * Math.log(1 + nodes.length / Math.max(1, hits.length));
+                    total += weight;
+                    for (var h = 0; h < hits.length; h++) scores[hits[h]] += weight;
+                }
+                var best = -1;
+                var second = 0;
+                for (var s = 0; s < scores.length; s++) {
+                    if (best < 0 || scores[s] > scores[best]) {
+                        if (best >= 0) second = scores[best];
+                        best = s;
+                    } else if (scores[s] > second) {
+                        second = scores[s];
+                    }
+                }
+                var score = (best < 0 || total === 0) ? 0 : scores[best] / total;
+                var margin = (best < 0 || total === 0) ? 0 : (scores[best] - second) / total;
+                var result = {name: broken[b].name, ok: false, score: score};
+                if (score >= config.repairMinScore && margin >= config.repairMinMargin) {
+                    result.selector = this.uniqueSelector(nodes[best]);
+                    result.print = this.print(nodes[best]);
+                }
+                results.push(result);
+            }
+            return results;
+        },
+
+        clickHandler: function (e) {
+            // Clicks on the overlay belong to it
+            if (this.isOwn(e.target)) return;
+            // Pass-through lets the page act on the click, so the requests it triggers can be recorded
+            if (!this.settings.passThrough) {
+                e.preventDefault();
+                e.stopPropagation();
+            }
+            // The previous step's settle time must reach Java before the capture it applies to
+            // Clicking elsewhere sends the open pick to the queue undecided
+            this.closeQuickPick(false);
+            this.endSettle();
+            // A fresh hover result saves describing now and scoring from Java later
+            var cached = this.hoverCache.get(e.target);
+            var data;
+            if (cached && cached.version === this.domVersion) {
+                data = {};
+                for (var key in cached.desc) data[key] = cached.desc[key];
+                // Typing changes the value without touching the DOM
+                data.value = this.valueOf(e.target);
+                data.scores = cached.scores;
+            } else {
+                data = this.describe(e.target);
+            }
+            data.seq = ++this.seq;
+            data.time = Date.now();
+            // The route at the click: a pass-through click may navigate before Java reads the URL
+            data.url = this.pageUrl();
+            this.remember(data.seq, e.target);
+            if (this.settings.quickPick) {
+                this.openQuickPick(e.target, data);
+            } else {
+                this.publish(data);
+            }
+            // A click the tracker swallowed changes nothing on the page, so there is no settle to measure
+            if (this.settings.passThrough) this.watchSettle(data.seq, data.time);
+            console.log('Element captured:', e.target.tagName);
+        }
+    };
+
+    document.addEventListener('click', gt.clickHandler.bind(gt), true);
+    document.addEventListener('mouseover', gt.hoverHandler.bind(gt), true);
+    document.addEventListener('keydown', gt.quickPickKey.bind(gt), true);
+    // Any DOM change may alter match counts, so it invalidates every hover result
+    if (typeof MutationObserver === 'function') {
+        new MutationObserver(function (records) { if (gt.isForeign(records)) gt.domVersion++; })
+            .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });
+    }
+    // A navigation ends the open probe; the new document measures its own load from navigation start
+    window.addEventListener('pagehide', function () {
+        gt.closeQuickPick(false);
+        gt.endSettle();
+    });
+    if (document.readyState === 'loading') {
+        gt.watchSettle(0, Math.round(performance.timeOrigin || Date.now()));
+    }
+})